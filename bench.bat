@@ -0,0 +1,14 @@
+@echo off
+if not exist out mkdir out
+javac -d out -sourcepath src;bench -cp "lib\libjline-3.25.1.jar" bench\benchmarks\*.java
+if %ERRORLEVEL% neq 0 (
+    echo Compilation failed!
+    pause
+    exit /b 1
+)
+if "%~1"=="" (
+    echo Usage: bench.bat BenchmarkClass [args...]
+    exit /b 1
+)
+java -cp "out;lib\libjline-3.25.1.jar" benchmarks.%*
+pause
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import managers.UsersManager;
+import users.PasswordHash;
+import users.User;
+
+public class AuthBenchmark {
+    public static void main(String[] args) throws Exception {
+        int userCount = Fixtures.intArg(args, 0, 50_000);
+        int iterations = Fixtures.intArg(args, 1, PasswordHash.getIterations());
+
+        Path dir = Fixtures.createDataDirectory(10, 0);
+        StringBuilder csv = new StringBuilder();
+        for(int id = 1; id <= userCount; id++) {
+            csv.append(id).append(",SALES,Staff ").append(id).append(",staff.").append(id).append(",password").append(id).append('\n');
+        }
+        Files.write(dir.resolve("users.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+        System.setProperty("hms.passwordIterations", String.valueOf(iterations));
+
+        UsersManager usersManager = new UsersManager();
+        List<User> users = usersManager.getUsers();
+        Random random = new Random(11);
+        String token = usersManager.login("staff.1", "password1");
+        List<String> tokens = new ArrayList<>();
+        for(int i = 0; i < 1024; i++) tokens.add(usersManager.login("staff.2", "password2"));
+
+        Harness.header("AuthBenchmark", userCount + " users, " + iterations + " PBKDF2 iterations");
+        Harness.measure("linear equalsIgnoreCase scan", () -> {
+            String username = "STAFF." + (1 + random.nextInt(userCount));
+            for(User u : users) if(u.getUsername().equalsIgnoreCase(username)) return u.getUserId();
+            return 0;
+        });
+        Harness.measure("findUserByUsername (index)", () -> usersManager.findUserByUsername("STAFF." + (1 + random.nextInt(userCount))).getUserId());
+        Harness.measure("login (hashed password)", () -> usersManager.login("staff.1", "password1") == null ? 0 : 1);
+        Harness.measure("resumeSession (token)", () -> usersManager.resumeSession(tokens.get(random.nextInt(tokens.size()))).getUserId());
+        Harness.sink += token.length();
+
+        Fixtures.delete(dir);
+    }
+}
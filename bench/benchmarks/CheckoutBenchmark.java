@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import managers.FileManager;
+import managers.InventoryManager;
+import offers.PercentageDiscount;
+import product.Product;
+import sales.Sale;
+import sales.SaleItem;
+import util.IntObjectMap;
+
+public class CheckoutBenchmark {
+    public static void main(String[] args) throws Exception {
+        int productCount = Fixtures.intArg(args, 0, 10_000);
+        int saleCount = Fixtures.intArg(args, 1, 50_000);
+
+        Path dir = Fixtures.createDataDirectory(productCount, saleCount);
+        InventoryManager inventoryManager = new InventoryManager();
+        IntObjectMap<Product> productsById = FileManager.indexProducts(inventoryManager.getProducts());
+        Random random = new Random(3);
+        PercentageDiscount discount = new PercentageDiscount(10);
+
+        Harness.header("CheckoutBenchmark", productCount + " products, " + saleCount + " sales");
+        Harness.measure("new SaleItem", () -> new SaleItem(1 + random.nextInt(productCount), 1).getQuantity());
+        Harness.measure("new Sale", () -> {
+            List<SaleItem> items = Fixtures.randomItems(random, productsById, productCount);
+            return new Sale(items, null).getSaleId();
+        });
+        Harness.measure("Sale recalcTotals", () -> {
+            Sale sale = new Sale(Fixtures.randomItems(random, productsById, productCount), null);
+            sale.setDiscountStrategy(discount);
+            return sale.getTotalCents();
+        });
+        List<SaleItem> basket = new ArrayList<>();
+        for(int i = 0; i < 1_000; i++) basket.add(SaleItem.restore(productsById.get(1 + random.nextInt(productCount)), 1 + random.nextInt(12)));
+        Harness.measure("price 1000-line basket", () -> new Sale(basket, discount).getTotalCents());
+        Harness.measure("Sale.processSale", () -> {
+            Sale sale = new Sale(Fixtures.randomItems(random, productsById, productCount), null);
+            sale.processSale();
+            return sale.getSaleId();
+        });
+
+        Fixtures.delete(dir);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import managers.FileManager;
+import product.Product;
+import sales.Sale;
+import util.CsvReader;
+import util.IntObjectMap;
+
+public class CsvLoadBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int productCount = Fixtures.intArg(args, 0, 100_000);
+        int saleCount = Fixtures.intArg(args, 1, 500_000);
+
+        Path dir = Files.createTempDirectory("csv-bench");
+        Path productsFile = dir.resolve("products.csv");
+        Path salesFile = dir.resolve("sales.csv");
+        List<Product> products = Fixtures.generateProducts(productCount);
+        IntObjectMap<Product> productsById = FileManager.indexProducts(products);
+        FileManager.saveProducts(productsFile, products);
+        FileManager.saveSales(salesFile, Fixtures.generateSales(productsById, productCount, saleCount));
+
+        System.out.printf("products.csv: %d rows, %.1f MB%n", productCount, Files.size(productsFile) / 1e6);
+        System.out.printf("sales.csv   : %d rows, %.1f MB%n%n", saleCount, Files.size(salesFile) / 1e6);
+
+        measure("CsvReader scan (sales)", salesFile, () -> scan(salesFile));
+        measure("FileManager.loadProducts", productsFile, () -> FileManager.loadProducts(productsFile).size());
+        System.setProperty("hms.salesSnapshot", "false");
+        measure("FileManager.loadSales", salesFile, () -> FileManager.loadSales(salesFile, productsById).size());
+        System.setProperty("hms.salesSnapshot", "true");
+        measure("FileManager.loadSales (.bin)", salesFile, () -> FileManager.loadSales(salesFile, productsById).size());
+
+        long headers = retainedBytes(FileManager.loadSales(salesFile, productsById), false);
+        long hydrated = retainedBytes(FileManager.loadSales(salesFile, productsById), true);
+        System.out.printf("%nretained heap: %.1f MB as headers (%.0f B/sale), %.1f MB hydrated (%.0f B/sale)%n",
+            headers / 1e6, (double) headers / saleCount, hydrated / 1e6, (double) hydrated / saleCount);
+
+        Fixtures.delete(dir);
+    }
+
+    private interface Task {
+        int run() throws IOException;
+    }
+
+    private static void measure(String name, Path file, Task task) throws IOException {
+        for(int i = 0; i < WARMUP_ROUNDS; i++) task.run();
+        double megabytes = Files.size(file) / 1e6;
+        double best = Double.MAX_VALUE;
+        double total = 0;
+        for(int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            best = Math.min(best, seconds);
+            total += seconds;
+        }
+        System.out.printf("%-28s avg %8.1f MB/s   best %8.1f MB/s%n", name, megabytes * MEASURED_ROUNDS / total, megabytes / best);
+    }
+
+    private static long retainedBytes(List<Sale> sales, boolean hydrate) {
+        if(hydrate) for(Sale s : sales) s.getSaleItems();
+        Runtime runtime = Runtime.getRuntime();
+        long before = usedAfterGc(runtime);
+        sales.clear();
+        long after = usedAfterGc(runtime);
+        return before - after;
+    }
+
+    private static long usedAfterGc(Runtime runtime) {
+        for(int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int scan(Path file) throws IOException {
+        int fields = 0;
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(file))) {
+            while(reader.nextRecord()) fields += reader.getFieldCount();
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import enums.*;
+import managers.FileManager;
+import offers.BuyXGetYFree;
+import product.*;
+import sales.*;
+import util.IntObjectMap;
+
+final class Fixtures {
+    private static final String[] NAME_WORDS = {
+        "Organic", "Fresh", "Classic", "Premium", "Family", "Mini", "Spicy", "Light",
+        "Milk", "Bread", "Water", "Coffee", "Cheese", "Juice", "Cleaner", "Towel"
+    };
+
+    private Fixtures() {}
+
+    static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index].replace("_", "")) : defaultValue;
+    }
+
+    static String productName(int id) {
+        return NAME_WORDS[id % 8] + " " + NAME_WORDS[8 + (id / 8) % 8] + " " + id;
+    }
+
+    static List<Product> generateProducts(int count) {
+        Random random = new Random(42);
+        Category[] categories = Category.values();
+        List<Product> products = new ArrayList<>(count);
+        for(int id = 1; id <= count; id++) {
+            Category category = categories[random.nextInt(categories.length)];
+            long priceCents = 100 + random.nextInt(10_000);
+            Product product;
+            if(random.nextBoolean()) {
+                product = new PerishableProduct(id, productName(id), category, priceCents, 1_000_000, 10, LocalDate.now().plusDays(random.nextInt(365)));
+            } else {
+                product = new NonPerishableProduct(id, productName(id), category, priceCents, 1_000_000, 10, random.nextInt(48));
+            }
+            if(id % 4 == 0) product.setDiscountStrategy(new BuyXGetYFree(2, 1));
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<Sale> generateSales(IntObjectMap<Product> productsById, int productCount, int count) {
+        Random random = new Random(7);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Sale> sales = new ArrayList<>(count);
+        for(int id = 1; id <= count; id++) {
+            sales.add(new Sale(id, start.plusDays(random.nextInt(2000)), randomItems(random, productsById, productCount), null));
+        }
+        return sales;
+    }
+
+    static List<SaleItem> randomItems(Random random, IntObjectMap<Product> productsById, int productCount) {
+        List<SaleItem> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(5);
+        for(int i = 0; i < lines; i++) {
+            items.add(new SaleItem(productsById.get(1 + random.nextInt(productCount)), 1 + random.nextInt(5)));
+        }
+        return items;
+    }
+
+    static Path createDataDirectory(int productCount, int saleCount) throws IOException {
+        Path dir = Files.createTempDirectory("hms-bench");
+        System.setProperty("hms.dataDir", dir.toString());
+        System.setProperty("hms.walSync", "false");
+        List<Product> products = generateProducts(productCount);
+        FileManager.saveProducts(dir.resolve("products.csv"), products);
+        FileManager.saveSales(dir.resolve("sales.csv"), generateSales(FileManager.indexProducts(products), productCount, saleCount));
+        Files.createFile(dir.resolve("users.csv"));
+        return dir;
+    }
+
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for(Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) Files.delete(p);
+        }
+    }
+}
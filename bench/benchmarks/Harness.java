@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+final class Harness {
+    private static final int WARMUP_ROUNDS = Integer.getInteger("bench.warmup", 3);
+    private static final int MEASURED_ROUNDS = Integer.getInteger("bench.rounds", 5);
+    private static final long ROUND_NANOS = Long.getLong("bench.roundMillis", 500) * 1_000_000L;
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    static volatile long sink;
+
+    interface Operation {
+        long run() throws Exception;
+    }
+
+    private Harness() {}
+
+    static void header(String suite, String parameters) {
+        CONSOLE.printf("%n%s (%s)%n", suite, parameters);
+        CONSOLE.printf("%-36s %14s %14s %14s%n", "benchmark", "avg ns/op", "best ns/op", "ops/s");
+    }
+
+    static double measure(String name, Operation operation) throws Exception {
+        System.setOut(DISCARD);
+        try {
+            for(int i = 0; i < WARMUP_ROUNDS; i++) round(operation);
+            double best = Double.MAX_VALUE;
+            double total = 0;
+            for(int i = 0; i < MEASURED_ROUNDS; i++) {
+                double nanosPerOp = round(operation);
+                best = Math.min(best, nanosPerOp);
+                total += nanosPerOp;
+            }
+            double average = total / MEASURED_ROUNDS;
+            CONSOLE.printf("%-36s %14.1f %14.1f %14.0f%n", name, average, best, 1e9 / average);
+            return average;
+        } finally {
+            System.setOut(CONSOLE);
+        }
+    }
+
+    private static double round(Operation operation) throws Exception {
+        long ops = 0;
+        long result = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            result += operation.run();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while(elapsed < ROUND_NANOS);
+        sink += result;
+        return (double) elapsed / ops;
+    }
+}
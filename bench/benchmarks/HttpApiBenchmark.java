@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import managers.InventoryManager;
+import managers.UsersManager;
+import product.Product;
+import ui.HttpApi;
+
+public class HttpApiBenchmark {
+    public static void main(String[] args) throws Exception {
+        int clients = Fixtures.intArg(args, 0, 32);
+        int requestsPerClient = Fixtures.intArg(args, 1, 500);
+        int productCount = Fixtures.intArg(args, 2, 1_000);
+        int hotProducts = Fixtures.intArg(args, 3, 8);
+
+        Path dir = Fixtures.createDataDirectory(productCount, 10_000);
+        Files.write(dir.resolve("users.csv"), "1,SALES,Lane Clerk,lane,lane-password\n".getBytes(StandardCharsets.UTF_8));
+        System.setProperty("hms.passwordIterations", "1000");
+        System.setProperty("hms.expirySweeper", "false");
+
+        InventoryManager inventoryManager = new InventoryManager();
+        HttpApi api = new HttpApi(inventoryManager, new UsersManager(), 0);
+        api.start();
+        String base = "http://localhost:" + api.getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        String token = login(client, base);
+        Random random = new Random(5);
+
+        Harness.header("HttpApiBenchmark", productCount + " products, " + (api.isUsingVirtualThreads() ? "virtual threads" : "platform thread pool"));
+        Harness.measure("GET /products/{id}", () -> send(client, get(base + "/products/" + (1 + random.nextInt(productCount)), token)));
+        Harness.measure("GET /products?q=", () -> send(client, get(base + "/products?q=fresh&limit=10", token)));
+        Harness.measure("GET /sales/summary", () -> send(client, get(base + "/sales/summary?from=2020-01-01&to=2025-06-30", token)));
+        Harness.measure("POST /sales", () -> send(client, post(base + "/sales", token, "items=" + (1 + random.nextInt(productCount)) + ":1")));
+
+        boolean isConsistent = stress(client, base, token, inventoryManager, clients, requestsPerClient, hotProducts);
+        api.stop();
+        Fixtures.delete(dir);
+        if(!isConsistent) {
+            System.out.println("\nFAILED: stock accounting does not balance");
+            System.exit(1);
+        }
+    }
+
+    private static boolean stress(HttpClient client, String base, String token, InventoryManager inventoryManager,
+                                  int clients, int requestsPerClient, int hotProducts) throws InterruptedException {
+        long[] initialStock = new long[hotProducts + 1];
+        int scarceStock = Math.max(1, clients * requestsPerClient / (2 * hotProducts));
+        for(int id = 1; id <= hotProducts; id++) {
+            inventoryManager.updateProductStock(inventoryManager.findProductById(id), scarceStock);
+            initialStock[id] = scarceStock;
+        }
+        int salesBefore = inventoryManager.getSales().size();
+
+        AtomicLongArray sold = new AtomicLongArray(hotProducts + 1);
+        AtomicLong created = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> lanes = new ArrayList<>(clients);
+        for(int c = 0; c < clients; c++) {
+            Thread lane = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for(int r = 0; r < requestsPerClient; r++) {
+                        int productId = 1 + random.nextInt(hotProducts);
+                        int quantity = 1 + random.nextInt(3);
+                        if(random.nextBoolean()) {
+                            if(client.send(get(base + "/products/" + productId, token), HttpResponse.BodyHandlers.discarding()).statusCode() != 200) failed.incrementAndGet();
+                            continue;
+                        }
+                        int status = client.send(post(base + "/sales", token, "items=" + productId + ":" + quantity), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if(status == 201) {
+                            created.incrementAndGet();
+                            sold.addAndGet(productId, quantity);
+                        } else if(status == 409) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failed.incrementAndGet();
+                }
+            });
+            lanes.add(lane);
+            lane.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for(Thread lane : lanes) lane.join();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        boolean isConsistent = failed.get() == 0 && inventoryManager.getSales().size() - salesBefore == created.get();
+        for(int id = 1; id <= hotProducts; id++) {
+            Product p = inventoryManager.findProductById(id);
+            if(p.getStockQuantity() + sold.get(id) != initialStock[id]) isConsistent = false;
+        }
+        System.out.printf("%n%d clients x %d requests on %d hot products: %.0f requests/s, %d sales, %d rejected, %d failed%s%n",
+                          clients, requestsPerClient, hotProducts, clients * (long) requestsPerClient / seconds,
+                          created.get(), rejected.get(), failed.get(), isConsistent ? "" : "   MISMATCH");
+        return isConsistent;
+    }
+
+    private static String login(HttpClient client, String base) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/login"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString("username=lane&password=lane-password"))
+            .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        int start = body.indexOf("\"token\":\"") + 9;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Authorization", "Bearer " + token).GET().build();
+    }
+
+    private static HttpRequest post(String uri, String token, String form) {
+        return HttpRequest.newBuilder(URI.create(uri))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+    }
+
+    private static long send(HttpClient client, HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if(response.statusCode() >= 300) throw new IllegalStateException(response.statusCode() + " " + response.body());
+        return response.body().length();
+    }
+}
@@ -0,0 +1,37 @@
+package benchmarks;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import enums.Category;
+import managers.InventoryManager;
+import product.Product;
+
+public class LookupBenchmark {
+    public static void main(String[] args) throws Exception {
+        int productCount = Fixtures.intArg(args, 0, 100_000);
+        int saleCount = Fixtures.intArg(args, 1, 200_000);
+
+        Path dir = Fixtures.createDataDirectory(productCount, saleCount);
+        InventoryManager inventoryManager = new InventoryManager();
+        Random random = new Random(1);
+
+        Harness.header("LookupBenchmark", productCount + " products, " + saleCount + " sales");
+        Harness.measure("findProductById", () -> {
+            Product p = inventoryManager.findProductById(1 + random.nextInt(productCount));
+            return p == null ? 0 : p.getStockQuantity();
+        });
+        Harness.measure("findProductById (miss)", () -> inventoryManager.findProductById(productCount + 1 + random.nextInt(productCount)) == null ? 1 : 0);
+        Harness.measure("findProductByName", () -> {
+            Product p = inventoryManager.findProductByName(Fixtures.productName(1 + random.nextInt(productCount)));
+            return p == null ? 0 : p.getProductId();
+        });
+        Harness.measure("listTopSellingProducts(10)", () -> inventoryManager.listTopSellingProducts(10).size());
+        Harness.measure("listLeastSellingProducts(10)", () -> inventoryManager.listLeastSellingProducts(10).size());
+        Harness.measure("getSales (full copy)", () -> inventoryManager.getSales().size());
+        Harness.measure("browseSales first page", () -> inventoryManager.browseSales().nextPage().size());
+        Harness.measure("browseProductsByCategory page", () -> inventoryManager.browseProductsByCategory(Category.DRINKS).nextPage().size());
+
+        Fixtures.delete(dir);
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import managers.FileManager;
+import offers.BuyXGetYFree;
+import offers.PercentageDiscount;
+import product.Product;
+import sales.Sale;
+import sales.SaleItem;
+import util.IntObjectMap;
+import util.Money;
+
+public class MoneyBenchmark {
+    private static final int ALLOCATION_OPS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int productCount = Fixtures.intArg(args, 0, 10_000);
+
+        List<Product> products = Fixtures.generateProducts(productCount);
+        IntObjectMap<Product> productsById = FileManager.indexProducts(products);
+        Random random = new Random(5);
+        List<SaleItem> items = Fixtures.randomItems(random, productsById, productCount);
+        Sale sale = new Sale(items, null);
+        PercentageDiscount percentage = new PercentageDiscount(12.5);
+        BuyXGetYFree buyTwoGetOne = new BuyXGetYFree(2, 1);
+
+        char[][] amounts = new char[1024][];
+        long[] cents = new long[amounts.length];
+        for(int i = 0; i < amounts.length; i++) {
+            cents[i] = random.nextInt(10_000_000);
+            amounts[i] = Money.format(cents[i]).toCharArray();
+        }
+        StringBuilder out = new StringBuilder(32);
+        int[] cursor = new int[1];
+
+        Harness.Operation recalc = () -> {
+            sale.setDiscountStrategy((cursor[0]++ & 1) == 0 ? percentage : buyTwoGetOne);
+            return sale.getTotalCents();
+        };
+        Harness.Operation parse = () -> {
+            char[] text = amounts[cursor[0]++ & (amounts.length - 1)];
+            return Money.parse(text, 0, text.length);
+        };
+        Harness.Operation format = () -> {
+            out.setLength(0);
+            return Money.append(out, cents[cursor[0]++ & (cents.length - 1)]).length();
+        };
+
+        Harness.header("MoneyBenchmark", productCount + " products, " + items.size() + " items per sale");
+        Harness.measure("Sale recalcTotals", recalc);
+        Harness.measure("Money.parse", parse);
+        Harness.measure("Money.append", format);
+
+        System.out.printf("%n%-36s %14s%n", "allocation", "bytes/op");
+        System.out.printf("%-36s %14.2f%n", "Sale recalcTotals", allocatedBytesPerOp(recalc));
+        System.out.printf("%-36s %14.2f%n", "Money.parse", allocatedBytesPerOp(parse));
+        System.out.printf("%-36s %14.2f%n", "Money.append", allocatedBytesPerOp(format));
+    }
+
+    private static double allocatedBytesPerOp(Harness.Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for(int i = 0; i < ALLOCATION_OPS; i++) Harness.sink += operation.run();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < ALLOCATION_OPS; i++) Harness.sink += operation.run();
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return (double) (after - before) / ALLOCATION_OPS;
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import managers.FileManager;
+import product.Product;
+import sales.Sale;
+import util.IntObjectMap;
+
+public class PersistenceBenchmark {
+    public static void main(String[] args) throws Exception {
+        int productCount = Fixtures.intArg(args, 0, 10_000);
+        int saleCount = Fixtures.intArg(args, 1, 50_000);
+
+        Path dir = Fixtures.createDataDirectory(productCount, saleCount);
+        Path productsFile = dir.resolve("products.csv");
+        Path salesFile = dir.resolve("sales.csv");
+        Path scratchFile = dir.resolve("sales-copy.csv");
+        List<Product> products = FileManager.loadProducts(productsFile);
+        IntObjectMap<Product> productsById = FileManager.indexProducts(products);
+        List<Sale> sales = FileManager.loadSales(salesFile, productsById);
+
+        Harness.header("PersistenceBenchmark", productCount + " products, " + saleCount + " sales");
+        Harness.measure("FileManager.loadProducts", () -> FileManager.loadProducts(productsFile).size());
+        System.setProperty("hms.salesSnapshot", "false");
+        Harness.measure("FileManager.loadSales", () -> FileManager.loadSales(salesFile, productsById).size());
+        Harness.measure("FileManager.saveSales", () -> FileManager.saveSales(scratchFile, sales) ? 1 : 0);
+        System.setProperty("hms.salesSnapshot", "true");
+        Harness.measure("FileManager.loadSales (.bin)", () -> FileManager.loadSales(salesFile, productsById).size());
+        Harness.measure("FileManager.saveSales (+ .bin)", () -> FileManager.saveSales(scratchFile, sales) ? 1 : 0);
+
+        Fixtures.delete(dir);
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import enums.Category;
+import managers.FileManager;
+import product.Product;
+import sales.Sale;
+import sales.SaleItem;
+import sales.SalesReportEngine;
+import sales.SalesReporter;
+import util.IntObjectMap;
+
+public class ReportingBenchmark {
+    public static void main(String[] args) throws Exception {
+        int productCount = Fixtures.intArg(args, 0, 10_000);
+        int saleCount = Fixtures.intArg(args, 1, 1_000_000);
+        int maxThreads = Fixtures.intArg(args, 2, Runtime.getRuntime().availableProcessors());
+
+        List<Product> products = Fixtures.generateProducts(productCount);
+        IntObjectMap<Product> productsById = FileManager.indexProducts(products);
+        List<Sale> sales = Fixtures.generateSales(productsById, productCount, saleCount);
+        List<Sale> packed = loadPacked(productsById, sales);
+
+        Harness.header("ReportingBenchmark", productCount + " products, " + saleCount + " sales");
+        double baseline = Harness.measure("single-thread HashMap summary", () -> summarizeSequentially(sales).getTotalSalesCount());
+        Map<Integer, Double> timings = new TreeMap<>();
+        Map<Integer, Double> packedTimings = new TreeMap<>();
+        for(int threads = 1; threads < maxThreads; threads <<= 1) {
+            timings.put(threads, measureEngine("hydrated", sales, threads));
+            packedTimings.put(threads, measureEngine("packed", packed, threads));
+        }
+        timings.put(maxThreads, measureEngine("hydrated", sales, maxThreads));
+        packedTimings.put(maxThreads, measureEngine("packed", packed, maxThreads));
+
+        System.out.printf("%n%8s %18s %18s %18s %18s%n", "threads", "vs HashMap", "vs 1 thread", "packed vs 1", "packed/hydrated");
+        for(Map.Entry<Integer, Double> e : timings.entrySet()) {
+            double packedTiming = packedTimings.get(e.getKey());
+            System.out.printf("%8d %17.2fx %17.2fx %17.2fx %17.2fx%n", e.getKey(), baseline / e.getValue(), timings.get(1) / e.getValue(),
+                              packedTimings.get(1) / packedTiming, packedTiming / e.getValue());
+        }
+    }
+
+    private static List<Sale> loadPacked(IntObjectMap<Product> productsById, List<Sale> sales) throws Exception {
+        System.setProperty("hms.salesSnapshot", "false");
+        Path dir = Files.createTempDirectory("hms-bench");
+        try {
+            Path path = dir.resolve("sales.csv");
+            FileManager.saveSales(path, sales);
+            return FileManager.loadSales(path, productsById);
+        } finally {
+            Fixtures.delete(dir);
+        }
+    }
+
+    private static double measureEngine(String label, List<Sale> sales, int threads) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return Harness.measure("SalesReportEngine " + label + " x" + threads, () -> SalesReportEngine.summarize(sales, pool).getTotalSalesCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static SalesReporter summarizeSequentially(List<Sale> sales) {
+        long totalRevenueCents = 0;
+        Map<Category, Long> revenuePerCategoryCents = new HashMap<>();
+        for(Sale s : sales) {
+            totalRevenueCents += s.getTotalCents();
+            for(SaleItem item : s.getSaleItems()) {
+                Category cat = item.getProduct().getCategory();
+                revenuePerCategoryCents.put(cat, revenuePerCategoryCents.getOrDefault(cat, 0L) + item.getSaleTotalPriceCents());
+            }
+        }
+        return new SalesReporter(sales.size(), totalRevenueCents, new EnumMap<>(revenuePerCategoryCents));
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import enums.Category;
+import product.NonPerishableProduct;
+import product.PerishableProduct;
+import product.Product;
+import sales.SaleItem;
+import sales.StockReservation;
+
+public class StockContentionBenchmark {
+    public static void main(String[] args) throws Exception {
+        int maxThreads = Fixtures.intArg(args, 0, Runtime.getRuntime().availableProcessors());
+        int productCount = Fixtures.intArg(args, 1, 16);
+        int initialStock = Fixtures.intArg(args, 2, 200_000);
+        int basketsPerThread = Fixtures.intArg(args, 3, 200_000);
+
+        System.out.printf("%d products x %d units, %d baskets per thread%n%n", productCount, initialStock, basketsPerThread);
+        System.out.printf("%8s %14s %12s %12s %10s%n", "threads", "baskets/s", "reserved", "rejected", "oversold");
+        boolean isConsistent = true;
+        for(int threads = 1; threads < maxThreads; threads <<= 1) {
+            isConsistent &= run(threads, productCount, initialStock, basketsPerThread);
+        }
+        isConsistent &= run(maxThreads, productCount, initialStock, basketsPerThread);
+        if(!isConsistent) {
+            System.out.println("\nFAILED: stock accounting does not balance");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(int threads, int productCount, int initialStock, int basketsPerThread) throws InterruptedException {
+        List<Product> products = new ArrayList<>(productCount);
+        for(int id = 1; id <= productCount; id++) {
+            products.add(id % 2 == 0
+                ? new PerishableProduct(id, "Product " + id, Category.FOOD, 1, initialStock, 10, LocalDate.now().plusDays(30))
+                : new NonPerishableProduct(id, "Product " + id, Category.FOOD, 1, initialStock, 10, 12));
+        }
+        AtomicLongArray sold = new AtomicLongArray(productCount + 1);
+        long[] outcomes = new long[2];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> lanes = new ArrayList<>(threads);
+
+        for(int t = 0; t < threads; t++) {
+            Thread lane = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] unitsSold = new long[productCount + 1];
+                long reserved = 0;
+                long rejected = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for(int b = 0; b < basketsPerThread; b++) {
+                    List<SaleItem> basket = new ArrayList<>(4);
+                    int lines = 1 + random.nextInt(4);
+                    for(int i = 0; i < lines; i++) basket.add(SaleItem.restore(products.get(random.nextInt(productCount)), 1 + random.nextInt(3)));
+
+                    StockReservation reservation = StockReservation.reserve(basket);
+                    if(reservation == null) {
+                        rejected++;
+                    } else if(random.nextInt(10) == 0) {
+                        reservation.release();
+                    } else {
+                        reserved++;
+                        for(SaleItem item : basket) unitsSold[item.getProduct().getProductId()] += item.getQuantity();
+                    }
+                }
+                for(int id = 1; id <= productCount; id++) sold.addAndGet(id, unitsSold[id]);
+                synchronized(outcomes) {
+                    outcomes[0] += reserved;
+                    outcomes[1] += rejected;
+                }
+            });
+            lanes.add(lane);
+            lane.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for(Thread lane : lanes) lane.join();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long oversold = 0;
+        boolean isConsistent = true;
+        for(Product p : products) {
+            long remaining = p.getStockQuantity();
+            long units = sold.get(p.getProductId());
+            if(remaining < 0) oversold -= remaining;
+            if(remaining + units != initialStock) isConsistent = false;
+        }
+        System.out.printf("%8d %14.0f %12d %12d %10d%s%n", threads, threads * (long) basketsPerThread / seconds,
+                          outcomes[0], outcomes[1], oversold, isConsistent ? "" : "   MISMATCH");
+        return isConsistent && oversold == 0;
+    }
+}
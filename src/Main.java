@@ -1,5 +1,54 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import managers.Config;
+import managers.DataStore;
+import managers.ImportReport;
+import managers.InventoryManager;
+import managers.Storage;
+import managers.StorageMigration;
+import managers.UsersManager;
+import ui.HttpApi;
+
 public class Main {
     public static void main(String[] args) {
+        if(args.length == 2 && args[0].equalsIgnoreCase("import")) {
+            ImportReport report = new InventoryManager().importSales(Paths.get(args[1]));
+            System.out.printf("Imported %d of %d rows in %.2f s (%.0f rows/s), %d rejected%n",
+                report.getImported(), report.getRowsRead(), report.getElapsedNanos() / 1e9, report.getRowsPerSecond(), report.getRejected());
+            for(String rejection : report.getRejections()) System.out.println("  " + rejection);
+            DataStore.getInstance().flush();
+            System.exit(report.isCommitted() ? 0 : 1);
+        }
+        if((args.length == 3 || args.length == 4) && args[0].equalsIgnoreCase("migrate")) {
+            String targetDirectory = args.length == 4 ? args[3] : Config.getString("dataDir", "data");
+            try {
+                Files.createDirectories(Paths.get(targetDirectory));
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.exit(1);
+            }
+            StorageMigration migration = StorageMigration.copy(Storage.open(args[1], Config.getString("dataDir", "data")),
+                                                               Storage.open(args[2], targetDirectory));
+            System.out.printf("Copied %d products, %d users and %d sales from %s to %s in %.2f s%n",
+                migration.getProducts(), migration.getUsers(), migration.getSales(), args[1], args[2], migration.getElapsedNanos() / 1e9);
+            if(!migration.isCommitted()) System.err.println("Migration failed: " + migration.getError());
+            System.exit(migration.isCommitted() ? 0 : 1);
+        }
+        if((args.length == 1 || args.length == 2) && args[0].equalsIgnoreCase("serve")) {
+            int port = args.length == 2 ? Integer.parseInt(args[1]) : Config.getInt("httpPort", 8080);
+            try {
+                HttpApi api = new HttpApi(new InventoryManager(), new UsersManager(), port);
+                Runtime.getRuntime().addShutdownHook(new Thread(api::stop));
+                api.start();
+                System.out.printf("Serving on port %d using %s%n", api.getPort(), api.isUsingVirtualThreads() ? "virtual threads" : "a platform thread pool");
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.exit(1);
+            }
+            return;
+        }
         new ui.ConsoleUI().start(null);
     }
 }
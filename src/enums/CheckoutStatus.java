@@ -0,0 +1,7 @@
+package enums;
+
+public enum CheckoutStatus {
+    RECORDED,
+    OUT_OF_STOCK,
+    NOT_SAVED
+}
@@ -0,0 +1,7 @@
+package enums;
+
+public enum RollupPeriod {
+    DAY,
+    WEEK,
+    MONTH
+}
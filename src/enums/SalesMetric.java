@@ -0,0 +1,6 @@
+package enums;
+
+public enum SalesMetric {
+    UNITS_SOLD,
+    REVENUE
+}
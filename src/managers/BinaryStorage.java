@@ -0,0 +1,310 @@
+package managers;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.LongConsumer;
+
+import enums.Category;
+import enums.ProductType;
+import enums.UserType;
+import offers.BuyXGetYFree;
+import offers.NoDiscount;
+import product.*;
+import sales.Sale;
+import users.User;
+import util.IntObjectMap;
+
+public class BinaryStorage implements Storage {
+    private static final int MAGIC = 0x484D5342;
+    private static final int VERSION = 1;
+    private static final Category[] CATEGORIES = Category.values();
+    private static final UserType[] USER_TYPES = UserType.values();
+
+    private final Path productsPath;
+    private final Path salesPath;
+    private final Path usersPath;
+    private final Path mutationLogPath;
+    private final Path idsPath;
+
+    interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    interface RecordReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    public BinaryStorage(Path directory) {
+        this.productsPath = directory.resolve("products.dat");
+        this.salesPath = directory.resolve("sales.dat");
+        this.usersPath = directory.resolve("users.dat");
+        this.mutationLogPath = directory.resolve("binary-mutations.log");
+        this.idsPath = directory.resolve("binary-ids.csv");
+    }
+
+    public ProductRepository products() {
+        return new ProductRepository() {
+            public List<Product> loadAll() { return readAll(productsPath, BinaryStorage::readProduct, false); }
+            public boolean saveAll(List<Product> products) {
+                return writeAtomically(productsPath, out -> {
+                    for(Product p : products) writeProduct(out, p);
+                });
+            }
+        };
+    }
+
+    public SalesRepository sales() {
+        return new SalesRepository() {
+            public List<Sale> loadAll(IntObjectMap<Product> productsById, boolean preserveLines) {
+                Map<Integer, Sale> replayed = new LinkedHashMap<>();
+                LongConsumer tornTail = preserveLines ? null : BinaryStorage.this::trimSales;
+                for(Sale s : readAll(salesPath, in -> readSale(in, productsById, preserveLines), preserveLines, tornTail)) replayed.put(s.getSaleId(), s);
+                return new ArrayList<>(replayed.values());
+            }
+
+            public boolean saveAll(List<Sale> sales) {
+                return writeAtomically(salesPath, out -> {
+                    for(Sale s : sales) writeSale(out, s);
+                });
+            }
+
+            public boolean append(Sale sale) { return appendSales(Collections.singletonList(sale)); }
+            public boolean appendAll(List<Sale> sales) { return appendSales(sales); }
+            public boolean compact(List<Sale> sales) { return saveAll(sales); }
+        };
+    }
+
+    public UserRepository users() {
+        return new UserRepository() {
+            public List<User> loadAll() { return readAll(usersPath, BinaryStorage::readUser, false); }
+            public boolean saveAll(List<User> users) {
+                return writeAtomically(usersPath, out -> {
+                    for(User u : users) writeUser(out, u);
+                });
+            }
+        };
+    }
+
+    public String getName() { return "binary"; }
+    public Path getMutationLogPath() { return mutationLogPath; }
+    public Path getIdsPath() { return idsPath; }
+
+    private boolean appendSales(List<Sale> sales) {
+        if(!Files.exists(salesPath) && !writeAtomically(salesPath, out -> {})) return false;
+        try (FileChannel channel = FileChannel.open(salesPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            for(Sale s : sales) writeSale(out, s);
+            out.flush();
+            channel.force(true);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean writeAtomically(Path path, RecordWriter records) {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                records.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            try { Files.deleteIfExists(tempPath); } catch (IOException ignored) {}
+            return false;
+        }
+    }
+
+    private static <T> List<T> readAll(Path path, RecordReader<T> records, boolean strict) {
+        return readAll(path, records, strict, null);
+    }
+
+    private static <T> List<T> readAll(Path path, RecordReader<T> records, boolean strict, LongConsumer tornTail) {
+        List<T> loaded = new ArrayList<>();
+        if(!Files.exists(path)) return loaded;
+        long completeEnd = -1;
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+             DataInputStream in = new DataInputStream(counter)) {
+            try {
+                if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    if(strict) throw new IllegalStateException(path + " is not a binary store file");
+                    System.err.println("Ignoring " + path + ": not a binary store file");
+                    return loaded;
+                }
+            } catch (EOFException e) {
+                if(strict) throw new IllegalStateException(path + " ends inside its header", e);
+                completeEnd = 0;
+            }
+            while(completeEnd < 0) {
+                long recordStart = counter.count;
+                T record;
+                try {
+                    record = records.read(in);
+                } catch (EOFException e) {
+                    if(counter.count == recordStart) break;
+                    if(strict) throw new IllegalStateException(path + " ends with a truncated record", e);
+                    completeEnd = recordStart;
+                    break;
+                }
+                if(record != null) loaded.add(record);
+            }
+        } catch (IOException | RuntimeException e) {
+            if(strict) throw new IllegalStateException("Could not read " + path + ": " + e.getMessage(), e);
+            e.printStackTrace();
+        }
+        if(completeEnd >= 0 && tornTail != null) tornTail.accept(completeEnd);
+        return loaded;
+    }
+
+    private void trimSales(long completeEnd) {
+        try {
+            if(completeEnd < 8) {
+                System.err.println("Rewriting " + salesPath + ": its header is incomplete");
+                writeAtomically(salesPath, out -> {});
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(salesPath, StandardOpenOption.WRITE)) {
+                System.err.println("Discarding " + (channel.size() - completeEnd) + " bytes of incomplete record at the end of " + salesPath);
+                channel.truncate(completeEnd);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        public int read() throws IOException {
+            int b = super.read();
+            if(b >= 0) count++;
+            return b;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if(n > 0) count += n;
+            return n;
+        }
+
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        public boolean markSupported() { return false; }
+    }
+
+    private static void writeProduct(DataOutputStream out, Product p) throws IOException {
+        out.writeInt(p.getProductId());
+        out.writeUTF(p.getName());
+        out.writeByte(p.getCategory().ordinal());
+        out.writeLong(p.getUnitPriceCents());
+        out.writeInt(p.getStockQuantity());
+        out.writeInt(p.getLowStockQuantityThreshold());
+        if(p instanceof PerishableProduct) {
+            out.writeByte(ProductType.PERISHABLE.ordinal());
+            out.writeLong(((PerishableProduct) p).getExpiryDate().toEpochDay());
+        } else {
+            out.writeByte(ProductType.NON_PERISHABLE.ordinal());
+            out.writeLong(((NonPerishableProduct) p).getWarrantyMonths());
+        }
+        if(p.getDiscountStrategy() instanceof BuyXGetYFree) {
+            BuyXGetYFree bxgyf = (BuyXGetYFree) p.getDiscountStrategy();
+            out.writeByte(1);
+            out.writeInt(bxgyf.getBuyQuantity());
+            out.writeInt(bxgyf.getFreeQuantity());
+        } else {
+            out.writeByte(0);
+        }
+    }
+
+    private static Product readProduct(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        String name = in.readUTF();
+        Category category = CATEGORIES[in.readByte()];
+        long unitPriceCents = in.readLong();
+        int stock = in.readInt();
+        int lowStockQuantityThreshold = in.readInt();
+        boolean perishable = in.readByte() == ProductType.PERISHABLE.ordinal();
+        long detail = in.readLong();
+        boolean buyXGetYFree = in.readByte() == 1;
+        int buyQty = buyXGetYFree ? in.readInt() : 0;
+        int freeQty = buyXGetYFree ? in.readInt() : 0;
+
+        Product product = perishable
+            ? new PerishableProduct(id, name, category, unitPriceCents, stock, lowStockQuantityThreshold, LocalDate.ofEpochDay(detail))
+            : new NonPerishableProduct(id, name, category, unitPriceCents, stock, lowStockQuantityThreshold, (int) detail);
+        product.setDiscountStrategy(buyXGetYFree ? new BuyXGetYFree(buyQty, freeQty) : new NoDiscount());
+        return product;
+    }
+
+    private static void writeUser(DataOutputStream out, User u) throws IOException {
+        out.writeInt(u.getUserId());
+        out.writeByte(u.getUserType().ordinal());
+        out.writeUTF(u.getName());
+        out.writeUTF(u.getUsername());
+        out.writeUTF(u.getPasswordHash());
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        int userId = in.readInt();
+        UserType role = USER_TYPES[in.readByte()];
+        String name = in.readUTF();
+        String username = in.readUTF();
+        String passwordHash = in.readUTF();
+        return FileManager.createUser(role, userId, name, username, passwordHash);
+    }
+
+    private static void writeSale(DataOutputStream out, Sale s) throws IOException {
+        out.writeInt(s.getSaleId());
+        out.writeLong(s.getSaleDate().toEpochDay());
+        out.writeLong(s.getSubTotalCents());
+        out.writeLong(s.getDiscountCents());
+        out.writeLong(s.getTotalCents());
+        int lines = s.getLineCount();
+        out.writeInt(lines);
+        for(int i = 0; i < lines; i++) {
+            out.writeInt(s.getLineProductId(i));
+            out.writeInt(s.getLineQuantity(i));
+        }
+    }
+
+    private static Sale readSale(DataInputStream in, IntObjectMap<Product> productsById, boolean preserveLines) throws IOException {
+        int saleId = in.readInt();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        long subTotalCents = in.readLong();
+        long discountCents = in.readLong();
+        long totalCents = in.readLong();
+        int lines = in.readInt();
+        int[] packedItems = new int[lines * 2];
+        int length = 0;
+        for(int i = 0; i < lines; i++) {
+            int productId = in.readInt();
+            int quantity = in.readInt();
+            if(!preserveLines && productsById.get(productId) == null) continue;
+            packedItems[length++] = productId;
+            packedItems[length++] = quantity;
+        }
+        if(length < packedItems.length) packedItems = Arrays.copyOf(packedItems, length);
+        return Sale.restore(saleId, date, packedItems, productsById, subTotalCents, discountCents, totalCents);
+    }
+}
@@ -0,0 +1,28 @@
+package managers;
+
+public final class Config {
+    private static final String PREFIX = "hms.";
+
+    private Config() {}
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if(value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + PREFIX + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
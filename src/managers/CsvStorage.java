@@ -0,0 +1,55 @@
+package managers;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import product.Product;
+import sales.Sale;
+import users.User;
+import util.IntObjectMap;
+
+public class CsvStorage implements Storage {
+    private final Path productsPath;
+    private final Path salesPath;
+    private final Path usersPath;
+    private final Path mutationLogPath;
+    private final Path idsPath;
+
+    public CsvStorage(Path directory) {
+        this.productsPath = directory.resolve("products.csv");
+        this.salesPath = directory.resolve("sales.csv");
+        this.usersPath = directory.resolve("users.csv");
+        this.mutationLogPath = directory.resolve("mutations.log");
+        this.idsPath = directory.resolve("ids.csv");
+    }
+
+    public ProductRepository products() {
+        return new ProductRepository() {
+            public List<Product> loadAll() { return FileManager.loadProducts(productsPath); }
+            public boolean saveAll(List<Product> products) { return FileManager.saveProducts(productsPath, products); }
+        };
+    }
+
+    public SalesRepository sales() {
+        return new SalesRepository() {
+            public List<Sale> loadAll(IntObjectMap<Product> productsById, boolean preserveLines) {
+                return FileManager.loadSales(salesPath, productsById, preserveLines);
+            }
+            public boolean saveAll(List<Sale> sales) { return FileManager.saveSales(salesPath, sales); }
+            public boolean append(Sale sale) { return FileManager.appendSale(salesPath, sale); }
+            public boolean appendAll(List<Sale> sales) { return FileManager.appendSales(salesPath, sales); }
+            public boolean compact(List<Sale> sales) { return FileManager.saveSalesSnapshot(salesPath, sales); }
+        };
+    }
+
+    public UserRepository users() {
+        return new UserRepository() {
+            public List<User> loadAll() { return FileManager.loadUsers(usersPath); }
+            public boolean saveAll(List<User> users) { return FileManager.saveUsers(usersPath, users); }
+        };
+    }
+
+    public String getName() { return "csv"; }
+    public Path getMutationLogPath() { return mutationLogPath; }
+    public Path getIdsPath() { return idsPath; }
+}
@@ -0,0 +1,89 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class Cursor<T> {
+    private final List<T> source;
+    private final Object lock;
+    private final Predicate<? super T> filter;
+    private final int pageSize;
+    private int[] pageStarts = new int[8];
+    private int pageNumber;
+    private int nextStart;
+
+    Cursor(List<T> source, Object lock, Predicate<? super T> filter, int pageSize) {
+        if(pageSize <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
+        this.source = source;
+        this.lock = lock;
+        this.filter = filter;
+        this.pageSize = pageSize;
+        this.nextStart = -1;
+    }
+
+    public List<T> nextPage() {
+        synchronized(lock) {
+            int start = nextStart < 0 ? seek(0) : nextStart;
+            if(pageNumber > 0 && start >= source.size()) return fill(pageStarts[pageNumber - 1]);
+            if(pageNumber == pageStarts.length) pageStarts = Arrays.copyOf(pageStarts, pageNumber * 2);
+            pageStarts[pageNumber++] = start;
+            return fill(start);
+        }
+    }
+
+    public List<T> previousPage() {
+        synchronized(lock) {
+            if(pageNumber <= 1) {
+                pageNumber = 0;
+                nextStart = -1;
+                return nextPage();
+            }
+            pageNumber--;
+            return fill(pageStarts[pageNumber - 1]);
+        }
+    }
+
+    public List<T> pageAt(int offset) {
+        if(offset < 0) throw new IllegalArgumentException("Offset cannot be negative");
+        synchronized(lock) {
+            int start = seek(0);
+            if(filter == null) start = Math.min(offset, source.size());
+            else for(int skipped = 0; skipped < offset && start < source.size(); skipped++) start = seek(start + 1);
+            pageNumber = 1;
+            pageStarts[0] = start;
+            return fill(start);
+        }
+    }
+
+    public boolean hasNextPage() {
+        synchronized(lock) {
+            return nextStart < 0 || nextStart < source.size();
+        }
+    }
+
+    public boolean hasPreviousPage() {
+        return pageNumber > 1;
+    }
+
+    public int getPageNumber() { return pageNumber; }
+    public int getPageSize() { return pageSize; }
+
+    private List<T> fill(int start) {
+        List<T> page = new ArrayList<>(pageSize);
+        int i = start;
+        for(; i < source.size() && page.size() < pageSize; i++) {
+            T record = source.get(i);
+            if(filter == null || filter.test(record)) page.add(record);
+        }
+        nextStart = seek(i);
+        return page;
+    }
+
+    private int seek(int from) {
+        int i = from;
+        if(filter != null) while(i < source.size() && !filter.test(source.get(i))) i++;
+        return Math.min(i, source.size());
+    }
+}
@@ -0,0 +1,412 @@
+package managers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import enums.*;
+import product.*;
+import sales.*;
+import users.*;
+import util.IntIntMap;
+import util.IntLongMap;
+import util.IntObjectMap;
+
+public class DataStore {
+    private static DataStore instance;
+
+    private final List<Product> products;
+    private final IntObjectMap<Product> productIndex;
+    private final List<Sale> sales;
+    private final IntObjectMap<Sale> salesById;
+    private final IntIntMap unitsSold;
+    private final IntLongMap revenueCents;
+    private final ProductRanking unitsRanking = new ProductRanking();
+    private final ProductRanking revenueRanking = new ProductRanking();
+    private final ProductNameIndex nameIndex = new ProductNameIndex();
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
+    private final SalesRollups rollups = new SalesRollups();
+    private final IntObjectMap<Product> lowStockProducts = new IntObjectMap<>();
+    private final List<LowStockListener> lowStockListeners = new CopyOnWriteArrayList<>();
+    private final List<User> users;
+    private final IntObjectMap<User> usersById = new IntObjectMap<>();
+    private final Map<String, User> usersByUsername = new HashMap<>();
+    private final SessionCache sessions = new SessionCache(TimeUnit.MINUTES.toNanos(Math.max(1, Config.getInt("sessionMinutes", 30))));
+    private final Storage storage;
+    private final WriteAheadLog mutationLog;
+    private final int checkpointInterval;
+    private final int pageSize;
+
+    private DataStore() {
+        this.storage = Storage.fromConfig();
+        this.products = storage.products().loadAll();
+        this.productIndex = FileManager.indexProducts(products);
+        this.users = storage.users().loadAll();
+        for(User u : users) indexUser(u);
+        this.mutationLog = new WriteAheadLog(storage.getMutationLogPath());
+        this.checkpointInterval = Config.getInt("walCheckpointInterval", 500);
+        this.pageSize = Math.max(1, Config.getInt("pageSize", 20));
+        if(mutationLog.replay(new Recovery()) > 0) checkpoint();
+
+        this.sales = storage.sales().loadAll(productIndex);
+        this.salesById = new IntObjectMap<>(sales.size());
+        this.unitsSold = new IntIntMap(products.size());
+        this.revenueCents = new IntLongMap(products.size());
+        for(Sale s : sales) {
+            salesById.put(s.getSaleId(), s);
+            countSale(s, 1, false);
+        }
+        for(Product p : products) {
+            rankProduct(p);
+            nameIndex.add(p);
+            expiryIndex.add(p);
+            if(p.isLowStock()) lowStockProducts.put(p.getProductId(), p);
+        }
+        Product.addListener(new CatalogListener());
+        if(Config.getBoolean("expirySweeper", true)) expiryIndex.startSweeper();
+    }
+
+    private class CatalogListener implements ProductListener {
+        public void onNameChanged(Product product, String oldName) {
+            if(findProductById(product.getProductId()) == product) nameIndex.add(product);
+        }
+
+        public void onCategoryChanged(Product product, Category oldCategory) {
+            if(findProductById(product.getProductId()) == product) recategorize(product);
+        }
+
+        public void onExpiryDateChanged(PerishableProduct product, LocalDate oldExpiryDate) {
+            if(findProductById(product.getProductId()) == product) expiryIndex.move(product, oldExpiryDate);
+        }
+
+        public void onLowStockChanged(Product product, boolean isLowStock) {
+            if(findProductById(product.getProductId()) != product) return;
+            synchronized(lowStockProducts) {
+                if(product.isLowStock()) lowStockProducts.put(product.getProductId(), product);
+                else lowStockProducts.remove(product.getProductId());
+            }
+            for(LowStockListener l : lowStockListeners) l.onLowStockChanged(product, isLowStock);
+        }
+    }
+
+    private class Recovery implements WriteAheadLog.Replayer {
+        public void upsertProduct(Product product) {
+            Product existing = productIndex.put(product.getProductId(), product);
+            if(existing != null) products.set(products.indexOf(existing), product);
+            else products.add(product);
+        }
+
+        public void deleteProduct(int productId) {
+            Product existing = productIndex.remove(productId);
+            if(existing != null) products.remove(existing);
+        }
+
+        public void setStock(int productId, int stockQuantity) {
+            Product existing = productIndex.get(productId);
+            if(existing != null) existing.setStockQuantity(stockQuantity);
+        }
+
+        public void upsertUser(User user) {
+            deleteUser(user.getUserId());
+            users.add(user);
+            indexUser(user);
+        }
+
+        public void deleteUser(int userId) {
+            users.removeIf(u -> u.getUserId() == userId);
+            unindexUser(userId);
+        }
+    }
+
+    public static synchronized DataStore getInstance() {
+        if(instance == null) instance = new DataStore();
+        return instance;
+    }
+
+    IntObjectMap<Product> getProductIndex() { return productIndex; }
+
+    synchronized IntObjectMap<Product> copyProductIndex() {
+        IntObjectMap<Product> copy = new IntObjectMap<>(productIndex.size());
+        for(Product p : productIndex.values()) copy.put(p.getProductId(), p);
+        return copy;
+    }
+
+    public synchronized Product findProductById(int productId) {
+        return productIndex.get(productId);
+    }
+
+    public synchronized Sale findSaleById(int saleId) {
+        return salesById.get(saleId);
+    }
+
+    public synchronized int getUnitsSold(int productId) {
+        return unitsSold.get(productId);
+    }
+
+    public synchronized long getRevenueCents(int productId) {
+        return revenueCents.get(productId);
+    }
+
+    public synchronized List<Product> listTopProducts(int k, SalesMetric metric, Category category) {
+        return rankingFor(metric).top(k, category);
+    }
+
+    public synchronized List<Product> listBottomProducts(int k, SalesMetric metric, Category category) {
+        return rankingFor(metric).bottom(k, category);
+    }
+
+    public List<Product> searchProductsByName(String query, int limit, boolean typoTolerant) {
+        return nameIndex.search(query, limit, typoTolerant);
+    }
+
+    public List<Product> listExpiredProducts() {
+        return expiryIndex.listExpired();
+    }
+
+    public List<Product> listNearExpiryProducts() {
+        return expiryIndex.listNearExpiry();
+    }
+
+    public List<Product> listLowStockProducts() {
+        List<Product> result;
+        synchronized(lowStockProducts) {
+            result = lowStockProducts.values();
+        }
+        result.sort(Comparator.comparingInt(Product::getProductId));
+        return result;
+    }
+
+    public void addLowStockListener(LowStockListener listener) {
+        if(listener != null) lowStockListeners.add(listener);
+    }
+
+    public void removeLowStockListener(LowStockListener listener) {
+        lowStockListeners.remove(listener);
+    }
+
+    private ProductRanking rankingFor(SalesMetric metric) {
+        return metric == SalesMetric.REVENUE ? revenueRanking : unitsRanking;
+    }
+
+    public synchronized boolean addProduct(Product product) {
+        if(product == null || productIndex.get(product.getProductId()) != null) return false;
+        if(!products.add(product)) return false;
+        productIndex.put(product.getProductId(), product);
+        rankProduct(product);
+        nameIndex.add(product);
+        expiryIndex.add(product);
+        synchronized(lowStockProducts) {
+            if(product.isLowStock()) lowStockProducts.put(product.getProductId(), product);
+        }
+        return saveProduct(product);
+    }
+
+    public synchronized boolean removeProduct(Product product) {
+        if(product == null || !products.remove(product)) return false;
+        if(productIndex.get(product.getProductId()) == product) {
+            productIndex.remove(product.getProductId());
+            synchronized(lowStockProducts) {
+                lowStockProducts.remove(product.getProductId());
+            }
+        }
+        unitsRanking.remove(product);
+        revenueRanking.remove(product);
+        nameIndex.remove(product);
+        expiryIndex.remove(product);
+        return afterLogged(mutationLog.logProductRemoval(product.getProductId()));
+    }
+
+    public boolean saveProduct(Product product) {
+        if(product == null) return false;
+        return afterLogged(mutationLog.logProduct(product));
+    }
+
+    public boolean saveStock(Product product) {
+        if(product == null) return false;
+        return afterLogged(mutationLog.logStock(product));
+    }
+
+    public synchronized boolean addUser(User user) {
+        if(user == null || usersById.get(user.getUserId()) != null || findUserByUsername(user.getUsername()) != null) return false;
+        if(!users.add(user)) return false;
+        indexUser(user);
+        return afterLogged(mutationLog.logUser(user));
+    }
+
+    public synchronized boolean removeUser(User user) {
+        if(user == null || !users.removeIf(u -> u.getUserId() == user.getUserId())) return false;
+        unindexUser(user.getUserId());
+        sessions.closeAll(user.getUserId());
+        return afterLogged(mutationLog.logUserRemoval(user.getUserId()));
+    }
+
+    public boolean saveUser(User user) {
+        if(user == null) return false;
+        return afterLogged(mutationLog.logUser(user));
+    }
+
+    public synchronized List<User> listUsers() {
+        return new ArrayList<>(users);
+    }
+
+    public synchronized User findUserById(int userId) {
+        return usersById.get(userId);
+    }
+
+    public synchronized User findUserByUsername(String username) {
+        if(username == null) return null;
+        return usersByUsername.get(foldUsername(username));
+    }
+
+    public String openSession(User user) {
+        return sessions.open(user);
+    }
+
+    public User resumeSession(String token) {
+        return sessions.resume(token);
+    }
+
+    public void closeSession(String token) {
+        sessions.close(token);
+    }
+
+    private void indexUser(User user) {
+        usersById.put(user.getUserId(), user);
+        usersByUsername.put(foldUsername(user.getUsername()), user);
+    }
+
+    private void unindexUser(int userId) {
+        User existing = usersById.remove(userId);
+        if(existing != null) usersByUsername.remove(foldUsername(existing.getUsername()), existing);
+    }
+
+    private static String foldUsername(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean afterLogged(boolean isLogged) {
+        if(mutationLog.getRecordCount() >= checkpointInterval) return checkpoint() && isLogged;
+        return isLogged;
+    }
+
+    private synchronized void recategorize(Product product) {
+        unitsRanking.recategorize(product);
+        revenueRanking.recategorize(product);
+    }
+
+    private void rankProduct(Product product) {
+        unitsRanking.add(product, unitsSold.get(product.getProductId()));
+        revenueRanking.add(product, revenueCents.get(product.getProductId()));
+    }
+
+    public synchronized List<Sale> listSales() {
+        return new ArrayList<>(sales);
+    }
+
+    public Cursor<Sale> browseSales() {
+        return new Cursor<>(sales, this, null, pageSize);
+    }
+
+    public Cursor<Product> browseProducts(Category category) {
+        return browseProducts(category, pageSize);
+    }
+
+    public Cursor<Product> browseProducts(Category category, int pageSize) {
+        return new Cursor<>(products, this, category == null ? null : p -> p.getCategory() == category, pageSize);
+    }
+
+    public synchronized List<Product> listProducts(Category category) {
+        List<Product> result = new ArrayList<>();
+        for(Product p : products) {
+            if(category == null || p.getCategory() == category) result.add(p);
+        }
+        return result;
+    }
+
+    public List<Sale> listSales(LocalDate from, LocalDate to) {
+        return rollups.listSales(from, to);
+    }
+
+    public SalesSummary summarizeSales(LocalDate from, LocalDate to) {
+        return rollups.summarize(from, to);
+    }
+
+    public List<SalesSummary> listRollups(RollupPeriod period, LocalDate from, LocalDate to) {
+        return rollups.list(period, from, to);
+    }
+
+    public synchronized boolean recordSale(Sale sale) {
+        if(sale == null) return false;
+        if(!storage.sales().append(sale)) return false;
+        Sale previous = salesById.put(sale.getSaleId(), sale);
+        if(previous != null) {
+            sales.set(sales.indexOf(previous), sale);
+            countSale(previous, -1, true);
+        } else {
+            sales.add(sale);
+        }
+        countSale(sale, 1, true);
+        boolean isStockLogged = true;
+        for(int line = 0; line < sale.getLineCount(); line++) {
+            isStockLogged = saveStock(sale.getLineProduct(line)) && isStockLogged;
+        }
+        if(!isStockLogged) checkpoint();
+        return true;
+    }
+
+    public synchronized boolean recordSales(List<Sale> batch) {
+        if(!storage.sales().appendAll(batch)) return false;
+        IntObjectMap<Product> touched = new IntObjectMap<>();
+        for(Sale sale : batch) {
+            salesById.put(sale.getSaleId(), sale);
+            sales.add(sale);
+            countSale(sale, 1, false);
+            for(int line = 0; line < sale.getLineCount(); line++) {
+                Product p = sale.getLineProduct(line);
+                if(p != null) touched.put(p.getProductId(), p);
+            }
+        }
+        for(Product p : touched.values()) {
+            if(productIndex.get(p.getProductId()) == p) rankProduct(p);
+        }
+        if(!checkpoint()) {
+            for(Product p : touched.values()) saveStock(p);
+        }
+        return true;
+    }
+
+    private void countSale(Sale sale, int sign, boolean updateRankings) {
+        rollups.add(sale, sign);
+        for(int line = 0; line < sale.getLineCount(); line++) {
+            if(sale.getLineProduct(line) == null) continue;
+            int productId = sale.getLineProductId(line);
+            int units = sign * sale.getLineQuantity(line);
+            long cents = sign * sale.getLineTotalCents(line);
+            unitsSold.addTo(productId, units);
+            revenueCents.addTo(productId, cents);
+            if(updateRankings) {
+                unitsRanking.addScore(productId, units);
+                revenueRanking.addScore(productId, cents);
+            }
+        }
+    }
+
+    public synchronized boolean checkpoint() {
+        boolean productsSaved = storage.products().saveAll(products);
+        boolean usersSaved = storage.users().saveAll(users);
+        if(productsSaved && usersSaved) return mutationLog.truncate();
+        return false;
+    }
+
+    public synchronized boolean flush() {
+        boolean checkpointed = checkpoint();
+        boolean snapshotSaved = storage.sales().compact(sales);
+        return checkpointed && snapshotSaved;
+    }
+}
@@ -0,0 +1,84 @@
+package managers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import product.PerishableProduct;
+import product.Product;
+
+public class ExpiryIndex {
+    private static final int DAYS_UNTIL_NEAR_EXPIRY = 4;
+
+    private final TreeMap<Long, Set<PerishableProduct>> productsByExpiryDay = new TreeMap<>();
+    private long today = LocalDate.now().toEpochDay();
+    private ScheduledExecutorService sweeper;
+
+    public synchronized void add(Product product) {
+        if(!(product instanceof PerishableProduct)) return;
+        PerishableProduct p = (PerishableProduct) product;
+        productsByExpiryDay.computeIfAbsent(p.getExpiryDate().toEpochDay(), k -> new LinkedHashSet<>()).add(p);
+    }
+
+    public synchronized void remove(Product product) {
+        if(!(product instanceof PerishableProduct)) return;
+        remove((PerishableProduct) product, ((PerishableProduct) product).getExpiryDate());
+    }
+
+    public synchronized void move(PerishableProduct product, LocalDate oldExpiryDate) {
+        remove(product, oldExpiryDate);
+        add(product);
+    }
+
+    private void remove(PerishableProduct product, LocalDate expiryDate) {
+        long day = expiryDate.toEpochDay();
+        Set<PerishableProduct> bucket = productsByExpiryDay.get(day);
+        if(bucket == null || !bucket.remove(product)) return;
+        if(bucket.isEmpty()) productsByExpiryDay.remove(day);
+    }
+
+    public synchronized List<Product> listExpired() {
+        return collect(productsByExpiryDay.headMap(today, false));
+    }
+
+    public synchronized List<Product> listNearExpiry() {
+        return collect(productsByExpiryDay.subMap(today, true, today + DAYS_UNTIL_NEAR_EXPIRY, false));
+    }
+
+    private static List<Product> collect(NavigableMap<Long, Set<PerishableProduct>> range) {
+        List<Product> result = new ArrayList<>();
+        for(Set<PerishableProduct> bucket : range.values()) result.addAll(bucket);
+        return result;
+    }
+
+    public synchronized void sweep() {
+        today = LocalDate.now().toEpochDay();
+    }
+
+    public synchronized void startSweeper() {
+        if(sweeper != null) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "expiry-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        LocalDateTime now = LocalDateTime.now();
+        long untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis() + 1000;
+        sweeper.scheduleAtFixedRate(this::sweep, untilMidnight, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopSweeper() {
+        if(sweeper == null) return;
+        sweeper.shutdownNow();
+        sweeper = null;
+    }
+}
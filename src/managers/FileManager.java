@@ -1,55 +1,88 @@
 package managers;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 import enums.*;
 import offers.*;
 import product.*;
 import sales.*;
 import users.*;
+import util.CsvReader;
+import util.CsvWriter;
+import util.IntObjectMap;
 
 public class FileManager {
-    private static final String productsFilePath = "data/products.csv";
-    private static final String salesFilePath = "data/sales.csv";
-    private static final String usersFilePath = "data/users.csv"; 
+    private static final String dataDirectory = Config.getString("dataDir", "data");
+    private static final String productsFilePath = dataDirectory + "/products.csv";
+    private static final String salesFilePath = dataDirectory + "/sales.csv";
+    private static final String usersFilePath = dataDirectory + "/users.csv"; 
+    private static final Category[] CATEGORIES = Category.values();
     
     public FileManager() {}
     
     public static boolean saveProducts(List<Product> products) {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(productsFilePath))) {
+        return saveProducts(Paths.get(productsFilePath), products);
+    }
+
+    public static boolean saveProducts(Path path, List<Product> products) {
+        return writeAtomically(path, writer -> {
             for (Product p : products) {
-                String discountData = serializeDiscount(p.getDiscountStrategy());
-                if (p instanceof PerishableProduct) {
-                    PerishableProduct pp = (PerishableProduct) p;
-                    writer.write(p.getProductId() + "," + p.getName() + "," + p.getCategory() + "," +
-                                 p.getUnitPrice() + "," + p.getStockQuantity() + "," +
-                                 p.getLowStockQuantityThreshold() + ",PERISHABLE," + pp.getExpiryDate() + "," + discountData);
-                } else if (p instanceof NonPerishableProduct) {
-                    NonPerishableProduct np = (NonPerishableProduct) p;
-                    writer.write(p.getProductId() + "," + p.getName() + "," + p.getCategory() + "," +
-                                 p.getUnitPrice() + "," + p.getStockQuantity() + "," +
-                                 p.getLowStockQuantityThreshold() + ",NON_PERISHABLE," + np.getWarrantyMonths() + "," + discountData);
-                }
-                writer.newLine();
+                writeProduct(writer, p);
+                writer.endRecord();
             }
+        });
+    }
+
+    static void writeProduct(CsvWriter writer, Product p) {
+        writer.field(p.getProductId()).field(p.getName()).field(p.getCategory().name())
+              .fieldCents(p.getUnitPriceCents()).field(p.getStockQuantity()).field(p.getLowStockQuantityThreshold());
+        if (p instanceof PerishableProduct) {
+            writer.field(ProductType.PERISHABLE.name()).field(((PerishableProduct) p).getExpiryDate());
+        } else if (p instanceof NonPerishableProduct) {
+            writer.field(ProductType.NON_PERISHABLE.name()).field(((NonPerishableProduct) p).getWarrantyMonths());
+        }
+        writeDiscount(writer, p.getDiscountStrategy());
+    }
+
+    interface RecordWriter {
+        void write(CsvWriter writer) throws IOException;
+    }
+
+    static boolean writeAtomically(Path path, RecordWriter records) {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CsvWriter writer = new CsvWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+                records.write(writer);
+                writer.flush();
+                channel.force(true);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
+            try { Files.deleteIfExists(tempPath); } catch (IOException ignored) {}
             return false;
         }
     }
 
-    
     public static List<Product> loadProducts() {
+        return loadProducts(Paths.get(productsFilePath));
+    }
+
+    public static List<Product> loadProducts(Path path) {
         List<Product> products = new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(productsFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Product product = parseProductLine(line);
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path))) {
+            while (reader.nextRecord()) {
+                if (reader.fieldStartsWithIgnoreCase(0, "id")) continue;
+                Product product = parseProduct(reader, 0);
                 if (product != null) products.add(product);
             }
         } catch (IOException e) {
@@ -59,45 +92,34 @@ public class FileManager {
     }
 
     public static boolean saveUsers(List<User> users) {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(usersFilePath))) {
+        return saveUsers(Paths.get(usersFilePath), users);
+    }
+
+    public static boolean saveUsers(Path path, List<User> users) {
+        return writeAtomically(path, writer -> {
             for (User u : users) {
-                writer.write(u.getUserId() + "," + u.getUserType().name() + "," + u.getName() + "," + u.getUsername() + "," + u.getPassword());
-                writer.newLine();
+                writeUser(writer, u);
+                writer.endRecord();
             }
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
+        });
+    }
+
+    static void writeUser(CsvWriter writer, User u) {
+        writer.field(u.getUserId()).field(u.getUserType().name()).field(u.getName())
+              .field(u.getUsername()).field(u.getPasswordHash());
     }
 
     public static List<User> loadUsers() {
+        return loadUsers(Paths.get(usersFilePath));
+    }
+
+    public static List<User> loadUsers(Path path) {
         List<User> users = new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(usersFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if(parts[0].trim().toLowerCase().startsWith("userid")) continue;
-                int userId = Integer.parseInt(parts[0].trim());
-                String role = parts[1].trim();
-                String name = parts[2].trim();
-                String username = parts[3].trim();
-                String password = parts[4].trim();
-
-                switch(role) {
-                    case "ADMIN":
-                        users.add(new Admin(userId, name, username, password));
-                        break;
-                    case "INVENTORY":
-                        users.add(new Inventory(userId, name, username, password));
-                        break;
-                    case "MARKETING":
-                        users.add(new Marketing(userId, name, username, password));
-                        break;
-                    case "SALES":
-                        users.add(new Sales(userId, name, username, password));
-                        break;
-                }
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path))) {
+            while (reader.nextRecord()) {
+                if (reader.fieldStartsWithIgnoreCase(0, "userid")) continue;
+                User user = parseUser(reader, 0);
+                if (user != null) users.add(user);
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -105,22 +127,65 @@ public class FileManager {
         return users;
     }
 
+    static User parseUser(CsvReader reader, int base) {
+        try {
+            int userId = reader.getInt(base);
+            UserType role = reader.getEnum(base + 1, UserType.values());
+            String name = reader.getString(base + 2);
+            String username = reader.getString(base + 3);
+            String passwordHash = reader.getString(base + 4);
+            return createUser(role, userId, name, username, passwordHash);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    static User createUser(UserType role, int userId, String name, String username, String passwordHash) {
+        switch(role) {
+            case ADMIN:
+                return new Admin(userId, name, username, passwordHash);
+            case INVENTORY:
+                return new Inventory(userId, name, username, passwordHash);
+            case MARKETING:
+                return new Marketing(userId, name, username, passwordHash);
+            case SALES:
+                return new Sales(userId, name, username, passwordHash);
+            default:
+                return null;
+        }
+    }
+
     public static boolean saveSales(List<Sale> sales) {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(salesFilePath))) {
-            for (Sale s : sales) {
-                 
-                StringBuilder itemsStr = new StringBuilder();
-                for (int i = 0; i < s.getSaleItems().size(); i++) {
-                    SaleItem item = s.getSaleItems().get(i);
-                    itemsStr.append(item.getProduct().getProductId()).append(":").append(item.getQuantity());
-                    if (i < s.getSaleItems().size() - 1) {
-                        itemsStr.append(";");
-                    }
-                }
-                writer.write(s.getSaleId() + "," + s.getSaleDate() + "," +
-                     s.getSubTotal() + "," + s.getDiscountAmount() + "," + s.getTotal() + "," + itemsStr);
-                writer.newLine();
-            }
+        return saveSales(Paths.get(salesFilePath), sales);
+    }
+
+    public static boolean saveSales(Path path, List<Sale> sales) {
+        boolean isSaved = writeAtomically(path, writer -> {
+            for (Sale s : sales) writeSale(writer, s);
+        });
+        return isSaved && saveSalesSnapshot(path, sales);
+    }
+
+    public static boolean saveSalesSnapshot(List<Sale> sales) {
+        return saveSalesSnapshot(Paths.get(salesFilePath), sales);
+    }
+
+    public static boolean saveSalesSnapshot(Path path, List<Sale> sales) {
+        if (!Config.getBoolean("salesSnapshot", true)) return true;
+        return SalesSnapshot.write(SalesSnapshot.pathFor(path), path, sales);
+    }
+
+    public static boolean appendSale(Sale sale) {
+        return appendSale(Paths.get(salesFilePath), sale);
+    }
+
+    public static boolean appendSale(Path path, Sale sale) {
+        try (FileChannel channel = openJournal(path)) {
+            CsvWriter writer = new CsvWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            writeSale(writer, sale);
+            writer.flush();
+            channel.force(false);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -128,95 +193,221 @@ public class FileManager {
         }
     }
 
-    public static List<Sale> loadSales() {
-        List<Sale> sales = new ArrayList<>();
-        List<Product> products = loadProducts();
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("M/d/yyyy");
-        
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(salesFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty() || line.trim().toLowerCase().startsWith("id")) continue;
-                
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue;
-                
-                int saleId = Integer.parseInt(parts[0].trim());
-                
-                String dateStr = parts[1].trim();
-                LocalDate date;
-                try {
-                    date = LocalDate.parse(dateStr, dateFormatter);
-                } catch (java.time.format.DateTimeParseException e) {
-                    date = LocalDate.parse(dateStr);
+    public static boolean appendSales(List<Sale> sales) {
+        return appendSales(Paths.get(salesFilePath), sales);
+    }
+
+    public static boolean appendSales(Path path, List<Sale> sales) {
+        try (FileChannel channel = openJournal(path)) {
+            CsvWriter writer = new CsvWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            for (Sale s : sales) writeSale(writer, s);
+            writer.flush();
+            channel.force(true);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    static FileChannel openJournal(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            long end = size;
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            scan:
+            while (end > 0) {
+                long from = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - from));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, from + buffer.position()) < 0) break;
                 }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        end = from + i + 1;
+                        break scan;
+                    }
+                }
+                end = from;
+            }
+            if (end < size) {
+                System.err.println("Discarding " + (size - end) + " bytes of incomplete record at the end of " + path);
+                channel.truncate(end);
+            }
+            channel.position(end);
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeSale(CsvWriter writer, Sale s) throws IOException {
+        writer.field(s.getSaleId()).field(s.getSaleDate())
+              .fieldCents(s.getSubTotalCents()).fieldCents(s.getDiscountCents()).fieldCents(s.getTotalCents());
+        writer.beginField();
+        for (int i = 0; i < s.getLineCount(); i++) {
+            if (i > 0) writer.append(';');
+            writer.append(s.getLineProductId(i)).append(':').append(s.getLineQuantity(i));
+        }
+        writer.endRecord();
+    }
+
+    public static List<Sale> loadSales() {
+        return loadSales(DataStore.getInstance().getProductIndex());
+    }
+
+    public static List<Sale> loadSales(IntObjectMap<Product> productsById) {
+        return loadSales(Paths.get(salesFilePath), productsById);
+    }
+
+    public static List<Sale> loadSales(Path path, IntObjectMap<Product> productsById) {
+        return loadSales(path, productsById, false);
+    }
+
+    public static List<Sale> loadSales(Path path, IntObjectMap<Product> productsById, boolean preserveLines) {
+        Map<Integer, Sale> replayed = new LinkedHashMap<>();
+        long journalOffset = 0;
+        if (!preserveLines && Config.getBoolean("salesSnapshot", true)) {
+            journalOffset = Math.max(0, SalesSnapshot.read(SalesSnapshot.pathFor(path), path, productsById, replayed));
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             CsvReader reader = new CsvReader(Channels.newReader(channel.position(journalOffset), StandardCharsets.UTF_8))) {
+            while (reader.nextRecord()) {
+                if (reader.fieldStartsWithIgnoreCase(0, "id")) continue;
+                Sale sale = parseSale(reader, productsById, preserveLines);
+                if (sale != null) replayed.put(sale.getSaleId(), sale);
+            }
+        } catch (IOException e) {
+            if (preserveLines && !(e instanceof NoSuchFileException)) throw new IllegalStateException("Could not read " + path + ": " + e.getMessage(), e);
+            e.printStackTrace();
+        }
+        return new ArrayList<>(replayed.values());
+    }
 
-                double storedSubtotal = Double.parseDouble(parts[2].trim());
-                double storedDiscount = Double.parseDouble(parts[3].trim());
-                double storedTotal = Double.parseDouble(parts[4].trim());
-                
-                List<SaleItem> items = new ArrayList<>();
-                if (parts.length > 5 && parts[5] != null && !parts[5].trim().isEmpty()) {
-                    String[] itemParts = parts[5].trim().split(";");
-                    for (String itemPart : itemParts) {
-                        if (itemPart.trim().isEmpty()) continue;
-                        String[] pq = itemPart.split(":");
-                        int productId = Integer.parseInt(pq[0].trim());
-                        int quantity = Integer.parseInt(pq[1].trim());
-                        
-                        for (Product p : products) {
-                            if (p.getProductId() == productId) {
-                                items.add(new SaleItem(p, quantity));
-                                break;
-                            }
+    private static Sale parseSale(CsvReader reader, IntObjectMap<Product> productsById, boolean preserveLines) {
+        try {
+            if (reader.getFieldCount() < 5) {
+                if (preserveLines) throw new IllegalArgumentException("Sale record has fewer than 5 fields");
+                return null;
+            }
+
+            int saleId = reader.getInt(0);
+            LocalDate date = reader.getDate(1);
+            long storedSubtotal = reader.getCents(2);
+            long storedDiscount = reader.getCents(3);
+            long storedTotal = reader.getCents(4);
+
+            int[] packedItems = new int[0];
+            int packedLength = 0;
+            if (!reader.isEmpty(5)) {
+                char[] chars = reader.getRecordBuffer();
+                int end = reader.getFieldEnd(5);
+                int pairStart = reader.getFieldStart(5);
+                int pairCount = 1;
+                for (int i = pairStart; i < end; i++) if (chars[i] == ';') pairCount++;
+                packedItems = new int[pairCount * 2];
+                while (pairStart < end) {
+                    int pairEnd = pairStart;
+                    int colon = -1;
+                    while (pairEnd < end && chars[pairEnd] != ';') {
+                        if (chars[pairEnd] == ':') colon = pairEnd;
+                        pairEnd++;
+                    }
+                    if (colon == -1 && preserveLines) throw new IllegalArgumentException("Line item without a quantity");
+                    if (colon != -1) {
+                        int productId = CsvReader.parseInt(chars, pairStart, colon);
+                        int quantity = CsvReader.parseInt(chars, colon + 1, pairEnd);
+                        if (preserveLines || productsById.get(productId) != null) {
+                            packedItems[packedLength++] = productId;
+                            packedItems[packedLength++] = quantity;
                         }
                     }
+                    pairStart = pairEnd + 1;
+                }
+            }
+            if (packedLength < packedItems.length) packedItems = Arrays.copyOf(packedItems, packedLength);
+
+            return Sale.restore(saleId, date, packedItems, productsById, storedSubtotal, storedDiscount, storedTotal);
+        } catch (RuntimeException e) {
+            if (preserveLines) throw new IllegalStateException("Malformed sales journal record " + reader.getString(0) + ": " + e.getMessage(), e);
+            System.err.println("Skipping malformed sales journal record " + reader.getString(0) + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    static boolean saveIdHighWaterMarks(Path path, Map<String, Integer> highWaterMarks) {
+        return writeAtomically(path, writer -> {
+            for (Map.Entry<String, Integer> e : highWaterMarks.entrySet()) {
+                writer.field(e.getKey()).field(e.getValue());
+                writer.endRecord();
+            }
+        });
+    }
+
+    static Map<String, Integer> loadIdHighWaterMarks(Path path) {
+        Map<String, Integer> highWaterMarks = new HashMap<>();
+        if (path == null || !Files.exists(path)) return highWaterMarks;
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path))) {
+            while (reader.nextRecord()) {
+                try {
+                    highWaterMarks.put(reader.getString(0), reader.getInt(1));
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping malformed id record: " + e.getMessage());
                 }
-                
-                Sale sale = new Sale(saleId, date, items, null, storedSubtotal, storedDiscount, storedTotal);
-                sales.add(sale);
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return sales;
+        return highWaterMarks;
+    }
+
+    public static Path getDataDirectory() {
+        return Paths.get(dataDirectory);
+    }
+
+    public static IntObjectMap<Product> indexProducts(List<Product> products) {
+        IntObjectMap<Product> productsById = new IntObjectMap<>(products.size());
+        for (Product p : products) productsById.put(p.getProductId(), p);
+        return productsById;
     }
 
     public static Sale findSaleById(int saleId) {
-        List<Sale> sales = loadSales();
-        for (Sale s : sales) {
-            if (s.getSaleId() == saleId) return s;
-        }
-        return null;
+        return DataStore.getInstance().findSaleById(saleId);
     }
   
     public static Product parseProductLine(String line) {
-        try {
-            if (line == null || line.trim().isEmpty() || line.trim().toLowerCase().startsWith("id")) return null;
+        if (line == null || line.trim().isEmpty() || line.trim().toLowerCase().startsWith("id")) return null;
+        try (CsvReader reader = new CsvReader(new StringReader(line))) {
+            return reader.nextRecord() ? parseProduct(reader, 0) : null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-            String[] parts = line.split(",");
-            int id = Integer.parseInt(parts[0].trim());
-            String name = parts[1].trim();
-            Category category = Category.valueOf(parts[2].trim());
-            double unitPrice = Double.parseDouble(parts[3].trim());
-            int stock = Integer.parseInt(parts[4].trim());
-            int lowStockQuantityThreshold = Integer.parseInt(parts[5].trim());
-            String type = parts[6].trim();
+    static Product parseProduct(CsvReader reader, int base) {
+        try {
+            int id = reader.getInt(base);
+            String name = reader.getString(base + 1);
+            Category category = reader.getEnum(base + 2, CATEGORIES);
+            long unitPriceCents = reader.getCents(base + 3);
+            int stock = reader.getInt(base + 4);
+            int lowStockQuantityThreshold = reader.getInt(base + 5);
 
             Product product;
-            if (ProductType.PERISHABLE.name().equalsIgnoreCase(type)) {
-                LocalDate expiry = LocalDate.parse(parts[7].trim());
-                product = new PerishableProduct(id, name, category, unitPrice, stock, lowStockQuantityThreshold, expiry);
+            if (reader.fieldEquals(base + 6, ProductType.PERISHABLE.name(), true)) {
+                LocalDate expiry = reader.getDate(base + 7);
+                product = new PerishableProduct(id, name, category, unitPriceCents, stock, lowStockQuantityThreshold, expiry);
             } else {
-                int warrantyMonths = Integer.parseInt(parts[7].trim());
-                product = new NonPerishableProduct(id, name, category, unitPrice, stock, lowStockQuantityThreshold, warrantyMonths);
+                int warrantyMonths = reader.getInt(base + 7);
+                product = new NonPerishableProduct(id, name, category, unitPriceCents, stock, lowStockQuantityThreshold, warrantyMonths);
             }
 
-            if (parts.length > 8) {
-                String discountType = parts[8].trim();
-                String discountParams = parts.length > 9 ? parts[9].trim() : "";
-                DiscountStrategy discount = parseDiscount(discountType, discountParams);
-                product.setDiscountStrategy(discount);
+            if (reader.getFieldCount() > base + 8) {
+                product.setDiscountStrategy(parseDiscount(reader, base));
             }
 
             return product;
@@ -226,20 +417,25 @@ public class FileManager {
         }
     }
 
-    private static String serializeDiscount(DiscountStrategy discountStrat) {
+    private static void writeDiscount(CsvWriter writer, DiscountStrategy discountStrat) {
         if (discountStrat instanceof BuyXGetYFree) {
             BuyXGetYFree bxgyf = (BuyXGetYFree) discountStrat;
-            return "BUY_X_GET_Y_FREE," + bxgyf.getBuyQuantity() + ":" + bxgyf.getFreeQuantity();
+            writer.field(DiscountStrategies.BUY_X_GET_Y_FREE.name()).beginField()
+                  .append(bxgyf.getBuyQuantity()).append(':').append(bxgyf.getFreeQuantity());
+            return;
         }
-        return "NONE,";
+        writer.field("NONE").field("");
     }
 
-    private static DiscountStrategy parseDiscount(String type, String params) {
-        if ("BUY_X_GET_Y_FREE".equalsIgnoreCase(type) && !params.isEmpty()) {
-            String[] qtyParts = params.split(":");
-            if (qtyParts.length == 2) {
-                int buyQty = Integer.parseInt(qtyParts[0].trim());
-                int freeQty = Integer.parseInt(qtyParts[1].trim());
+    private static DiscountStrategy parseDiscount(CsvReader reader, int base) {
+        if (reader.fieldEquals(base + 8, DiscountStrategies.BUY_X_GET_Y_FREE.name(), true) && !reader.isEmpty(base + 9)) {
+            char[] chars = reader.getRecordBuffer();
+            int start = reader.getFieldStart(base + 9);
+            int end = reader.getFieldEnd(base + 9);
+            for (int i = start; i < end; i++) {
+                if (chars[i] != ':') continue;
+                int buyQty = CsvReader.parseInt(chars, start, i);
+                int freeQty = CsvReader.parseInt(chars, i + 1, end);
                 return new BuyXGetYFree(buyQty, freeQty);
             }
         }
@@ -0,0 +1,69 @@
+package managers;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class IdAllocator {
+    private static final int BLOCK_SIZE = Math.max(1, Config.getInt("idBlockSize", 64));
+    private static final Path idsPath = Storage.fromConfig().getIdsPath();
+    private static final Map<String, Integer> persistedLimits = FileManager.loadIdHighWaterMarks(idsPath);
+    private static final Map<String, IdAllocator> allocators = new LinkedHashMap<>();
+
+    public static final IdAllocator SALES = new IdAllocator("sale");
+    public static final IdAllocator PRODUCTS = new IdAllocator("product");
+    public static final IdAllocator USERS = new IdAllocator("user");
+
+    private final String name;
+    private final AtomicInteger next;
+    private volatile int limit;
+
+    private IdAllocator(String name) {
+        this.name = name;
+        this.limit = Math.max(1, persistedLimits.getOrDefault(name, 1));
+        this.next = new AtomicInteger(limit);
+        allocators.put(name, this);
+    }
+
+    public int nextId() {
+        while(true) {
+            int id = next.get();
+            if(id < limit) {
+                if(next.compareAndSet(id, id + 1)) return id;
+            } else {
+                reserveBlock(id + 1);
+            }
+        }
+    }
+
+    public int nextIds(int count) {
+        if(count <= 0) throw new IllegalArgumentException("Count must be greater than 0");
+        while(true) {
+            int first = next.get();
+            if(first + count <= limit) {
+                if(next.compareAndSet(first, first + count)) return first;
+            } else {
+                reserveBlock(first + count);
+            }
+        }
+    }
+
+    public void observe(int id) {
+        int current;
+        while((current = next.get()) <= id) {
+            if(next.compareAndSet(current, id + 1)) return;
+        }
+    }
+
+    private void reserveBlock(int required) {
+        synchronized(IdAllocator.class) {
+            if(limit >= required) return;
+            int newLimit = Math.max(limit, required - 1) + BLOCK_SIZE;
+            Map<String, Integer> limits = new LinkedHashMap<>();
+            for(IdAllocator a : allocators.values()) limits.put(a.name, a == this ? newLimit : Math.max(a.limit, a.next.get()));
+            if(idsPath != null && !FileManager.saveIdHighWaterMarks(idsPath, limits)) throw new IllegalStateException("Could not reserve " + name + " ids");
+            limit = newLimit;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+    private final int rowsRead;
+    private final int imported;
+    private final List<String> rejections;
+    private final long elapsedNanos;
+    private final boolean isCommitted;
+
+    ImportReport(int rowsRead, int imported, List<String> rejections, long elapsedNanos, boolean isCommitted) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejections = new ArrayList<>(rejections);
+        this.elapsedNanos = elapsedNanos;
+        this.isCommitted = isCommitted;
+    }
+
+    public int getRowsRead() { return rowsRead; }
+    public int getImported() { return imported; }
+    public int getRejected() { return rejections.size(); }
+    public List<String> getRejections() { return new ArrayList<>(rejections); }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public boolean isCommitted() { return isCommitted; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead / (elapsedNanos / 1e9);
+    }
+}
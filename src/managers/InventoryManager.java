@@ -1,31 +1,26 @@
 package managers;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.ArrayList;
-import java.util.HashMap;
+import enums.*;
 import product.*;
 import sales.*;
 
 public class InventoryManager {
-    private List<Product> products;
-    private List<Sale> sales;
+    private DataStore store;
 
     public InventoryManager() {
-        this.products = FileManager.loadProducts();
-        this.sales = FileManager.loadSales();
+        this.store = DataStore.getInstance();
     }
 
     public boolean addProduct(Product product) {
-        boolean isAdded = products.add(product);
-        if(isAdded) return FileManager.saveProducts(products);
-        return false;
+        return store.addProduct(product);
     }
 
     public boolean removeProduct(Product product) {
-        boolean isRemoved = products.remove(product);
-        if(isRemoved) return FileManager.saveProducts(products);
-        return false;
+        return store.removeProduct(product);
     }
 
     public boolean removeProductById(int productId) {
@@ -35,113 +30,125 @@ public class InventoryManager {
     }
 
     public Product findProductById(int productId) {
-        for(Product p : products) {
-            if(p.getProductId() == productId) return p;
-        }
-        return null;
+        return store.findProductById(productId);
     }
 
     public Product findProductByName(String productName) {
-        for(Product p : products) {
-            if(p.getName().toLowerCase().contains(productName.toLowerCase())) return p;
-        }
-        return null;
+        List<Product> matches = store.searchProductsByName(productName, 1, false);
+        return matches.isEmpty() ? null : matches.get(0);
     }
 
-    public List<Product> listProductsByCategory(enums.Category category) {
-        List<Product> productsByCategory = new ArrayList<>();
-        if(category == null) return productsByCategory;
-        if(products.isEmpty()) return productsByCategory;
+    public List<Product> searchProductsByName(String query, int limit, boolean typoTolerant) {
+        return store.searchProductsByName(query, limit, typoTolerant);
+    }
 
-        for(Product p : products) {
-            if(p.getCategory() == category) productsByCategory.add(p);
-        }
-        return productsByCategory;
+    public List<Product> listProductsByCategory(Category category) {
+        if(category == null) return new ArrayList<>();
+        return store.listProducts(category);
     }
 
     public boolean updateProductStock(Product product, int newStock) {
         if(product == null) return false;
         if(newStock < 0) return false;
         product.setStockQuantity(newStock);
-        return FileManager.saveProducts(products);
+        return store.saveStock(product);
     }
 
     public List<Product> listTopSellingProducts(int topN) {
-        if (topN <= 0) return new ArrayList<>();
-        Map<Integer, Integer> productSales = getAllProductSales();
-
-        List<Product> allProducts = new ArrayList<>(products);
-        allProducts.sort((a,b) -> Integer.compare(
-            productSales.getOrDefault(b.getProductId(), 0),
-            productSales.getOrDefault(a.getProductId(), 0))
-        );
+        return listTopSellingProducts(topN, SalesMetric.UNITS_SOLD, null);
+    }
 
-        int limit = Math.min(topN, allProducts.size());
-        return new ArrayList<>(allProducts.subList(0, limit));
+    public List<Product> listTopSellingProducts(int topN, SalesMetric metric, Category category) {
+        if (topN <= 0) return new ArrayList<>();
+        return store.listTopProducts(topN, metric, category);
     }
 
     public List<Product> listLeastSellingProducts(int leastN) {
-        if (leastN <= 0) return new ArrayList<>();
-        Map<Integer, Integer> productSales = getAllProductSales();
-
-        List<Product> allProducts = new ArrayList<>(products);
-        allProducts.sort((a,b) -> Integer.compare(
-            productSales.getOrDefault(a.getProductId(), 0),
-            productSales.getOrDefault(b.getProductId(), 0))
-        );
+        return listLeastSellingProducts(leastN, SalesMetric.UNITS_SOLD, null);
+    }
 
-        int limit = Math.min(leastN, allProducts.size());
-        return new ArrayList<>(allProducts.subList(0, limit));
+    public List<Product> listLeastSellingProducts(int leastN, SalesMetric metric, Category category) {
+        if (leastN <= 0) return new ArrayList<>();
+        return store.listBottomProducts(leastN, metric, category);
     }
 
     public List<Product> listLowStockProducts() {
-        List<Product> lowStockProducts = new ArrayList<>();
-        for(Product p : products) {
-            if(p.isLowStock()) lowStockProducts.add(p);
-        }
-        return lowStockProducts;
+        return store.listLowStockProducts();
+    }
+
+    public void addLowStockListener(LowStockListener listener) {
+        store.addLowStockListener(listener);
     }
 
     public List<Product> listExpiredProducts() {
-        List<Product> expiredProducts = new ArrayList<>();
-        for(Product p : products) {
-            if(p instanceof PerishableProduct && ((PerishableProduct)p).isExpired()) expiredProducts.add(p);
-        }
-        return expiredProducts;
+        return store.listExpiredProducts();
     }
+
     public List<Product> listNearExpiryProducts() {
-        List<Product> nearExpiryProducts = new ArrayList<>();
-        for(Product p : products) {
-            if(p instanceof PerishableProduct && ((PerishableProduct)p).isNearExpiry()) nearExpiryProducts.add(p);
-        }
-        return nearExpiryProducts;
+        return store.listNearExpiryProducts();
     }
 
     public List<Product> getProducts() {
-        return new ArrayList<>(products);
+        return store.listProducts(null);
     }
 
     public List<Sale> getSales() {
-        return new ArrayList<>(sales);
+        return store.listSales();
     }
 
-    public boolean saveProducts() {
-        return FileManager.saveProducts(products);
+    public Cursor<Product> browseProducts() {
+        return store.browseProducts(null);
+    }
+
+    public Cursor<Product> browseProductsByCategory(Category category) {
+        return store.browseProducts(category);
+    }
+
+    public Cursor<Product> browseProducts(Category category, int pageSize) {
+        return store.browseProducts(category, pageSize);
+    }
+
+    public Cursor<Sale> browseSales() {
+        return store.browseSales();
+    }
+
+    public Sale findSaleById(int saleId) {
+        return store.findSaleById(saleId);
+    }
+
+    public SalesReporter summarizeSales() {
+        return SalesReportEngine.summarize(store.listSales());
+    }
+
+    public List<Sale> listSales(LocalDate from, LocalDate to) {
+        return store.listSales(from, to);
+    }
+
+    public SalesSummary summarizeSales(LocalDate from, LocalDate to) {
+        return store.summarizeSales(from, to);
     }
 
-    private Map<Integer, Integer> getAllProductSales() {
-        Map<Integer, Integer> productSales = new HashMap<>();
-        if(this.sales == null) return productSales;
-        for(Sale s : this.sales) {
-            for(SaleItem item : s.getSaleItems()) {
-                if(item == null || item.getProduct() == null) continue;
-                productSales.put(item.getProduct().getProductId(), productSales.getOrDefault(item.getProduct().getProductId(), 0) + item.getQuantity());
-            }
-        }
-        return productSales;
+    public List<SalesSummary> listSalesRollups(RollupPeriod period, LocalDate from, LocalDate to) {
+        return store.listRollups(period, from, to);
+    }
+
+    public ImportReport importSales(Path path) {
+        return new SalesImporter(store).importSales(path);
+    }
+
+    public boolean saveProduct(Product product) {
+        return store.saveProduct(product);
+    }
+
+    public boolean saveProducts() {
+        return store.checkpoint();
     }
 
     public int getProductSalesCount(int productId) {
-        return getAllProductSales().getOrDefault(productId, 0);
+        return store.getUnitsSold(productId);
+    }
+
+    public long getProductRevenueCents(int productId) {
+        return store.getRevenueCents(productId);
     }
 }
@@ -0,0 +1,7 @@
+package managers;
+
+import product.Product;
+
+public interface LowStockListener {
+    void onLowStockChanged(Product product, boolean isLowStock);
+}
@@ -0,0 +1,84 @@
+package managers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import product.Product;
+import sales.Sale;
+import users.User;
+import util.IntObjectMap;
+
+public class MemoryStorage implements Storage {
+    private final List<Product> products = new ArrayList<>();
+    private final List<Sale> sales = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+
+    public MemoryStorage() {}
+
+    public MemoryStorage(List<Product> products, List<Sale> sales, List<User> users) {
+        this.products.addAll(products);
+        this.sales.addAll(sales);
+        this.users.addAll(users);
+    }
+
+    public ProductRepository products() {
+        return new ProductRepository() {
+            public List<Product> loadAll() {
+                synchronized(products) { return new ArrayList<>(products); }
+            }
+
+            public boolean saveAll(List<Product> saved) {
+                synchronized(products) {
+                    products.clear();
+                    products.addAll(saved);
+                }
+                return true;
+            }
+        };
+    }
+
+    public SalesRepository sales() {
+        return new SalesRepository() {
+            public List<Sale> loadAll(IntObjectMap<Product> productsById, boolean preserveLines) {
+                synchronized(sales) { return new ArrayList<>(sales); }
+            }
+
+            public boolean saveAll(List<Sale> saved) {
+                synchronized(sales) {
+                    sales.clear();
+                    sales.addAll(saved);
+                }
+                return true;
+            }
+
+            public boolean append(Sale sale) {
+                synchronized(sales) { return sales.add(sale); }
+            }
+
+            public boolean appendAll(List<Sale> appended) {
+                synchronized(sales) { return sales.addAll(appended) || appended.isEmpty(); }
+            }
+        };
+    }
+
+    public UserRepository users() {
+        return new UserRepository() {
+            public List<User> loadAll() {
+                synchronized(users) { return new ArrayList<>(users); }
+            }
+
+            public boolean saveAll(List<User> saved) {
+                synchronized(users) {
+                    users.clear();
+                    users.addAll(saved);
+                }
+                return true;
+            }
+        };
+    }
+
+    public String getName() { return "memory"; }
+    public Path getMutationLogPath() { return null; }
+    public Path getIdsPath() { return null; }
+}
@@ -0,0 +1,254 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import product.Product;
+import util.IntIntMap;
+import util.IntObjectMap;
+
+public class ProductNameIndex {
+    private static final int MATCH_EXACT = 0;
+    private static final int MATCH_PREFIX = 1;
+    private static final int MATCH_WORD_PREFIX = 2;
+    private static final int MATCH_SUBSTRING = 3;
+    private static final int MATCH_TYPO = 4;
+
+    private final IntObjectMap<Product> productsById = new IntObjectMap<>();
+    private final IntObjectMap<String> normalizedNames = new IntObjectMap<>();
+    private final Map<Long, PostingList> trigrams = new HashMap<>();
+    private final TreeMap<String, PostingList> words = new TreeMap<>();
+
+    private static class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if(at >= 0) return;
+            at = -at - 1;
+            if(size == ids.length) ids = Arrays.copyOf(ids, size << 1);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if(at < 0) return;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private static class Match {
+        private final Product product;
+        private final int rank;
+        private final int nameLength;
+
+        private Match(Product product, int rank, int nameLength) {
+            this.product = product;
+            this.rank = rank;
+            this.nameLength = nameLength;
+        }
+    }
+
+    private static final Comparator<Match> BY_RELEVANCE = Comparator
+        .comparingInt((Match m) -> m.rank)
+        .thenComparingInt(m -> m.nameLength)
+        .thenComparingInt(m -> m.product.getProductId());
+
+    public synchronized void add(Product product) {
+        if(product == null) return;
+        remove(product);
+        int id = product.getProductId();
+        String name = normalize(product.getName());
+        productsById.put(id, product);
+        normalizedNames.put(id, name);
+        for(int i = 0; i + 3 <= name.length(); i++) {
+            trigrams.computeIfAbsent(trigram(name, i), k -> new PostingList()).add(id);
+        }
+        for(String word : splitWords(name)) {
+            words.computeIfAbsent(word, k -> new PostingList()).add(id);
+        }
+    }
+
+    public synchronized void remove(Product product) {
+        if(product == null || productsById.get(product.getProductId()) != product) return;
+        int id = product.getProductId();
+        String name = normalizedNames.remove(id);
+        productsById.remove(id);
+        for(int i = 0; i + 3 <= name.length(); i++) {
+            Long key = trigram(name, i);
+            PostingList list = trigrams.get(key);
+            if(list == null) continue;
+            list.remove(id);
+            if(list.size == 0) trigrams.remove(key);
+        }
+        for(String word : splitWords(name)) {
+            PostingList list = words.get(word);
+            if(list == null) continue;
+            list.remove(id);
+            if(list.size == 0) words.remove(word);
+        }
+    }
+
+    public synchronized List<Product> search(String query, int limit, boolean typoTolerant) {
+        List<Product> results = new ArrayList<>();
+        if(query == null || limit <= 0) return results;
+        String q = normalize(query.trim());
+        if(q.isEmpty()) return results;
+
+        List<Match> matches = new ArrayList<>();
+        IntObjectMap<Match> seen = new IntObjectMap<>();
+        if(q.length() >= 3) {
+            collectSubstringMatches(q, matches, seen);
+        } else {
+            collectWordPrefixMatches(q, matches, seen);
+            collectShortSubstringMatches(q, matches, seen);
+        }
+        if(typoTolerant && q.length() >= 3) collectTypoMatches(q, matches, seen);
+
+        matches.sort(BY_RELEVANCE);
+        for(int i = 0; i < matches.size() && i < limit; i++) results.add(matches.get(i).product);
+        return results;
+    }
+
+    private void collectSubstringMatches(String q, List<Match> matches, IntObjectMap<Match> seen) {
+        List<PostingList> lists = new ArrayList<>();
+        for(int i = 0; i + 3 <= q.length(); i++) {
+            PostingList list = trigrams.get(trigram(q, i));
+            if(list == null) return;
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+
+        PostingList smallest = lists.get(0);
+        candidates:
+        for(int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            for(int j = 1; j < lists.size(); j++) {
+                if(!lists.get(j).contains(id)) continue candidates;
+            }
+            String name = normalizedNames.get(id);
+            int at = name.indexOf(q);
+            if(at >= 0) addMatch(id, rankOf(name, q, at), matches, seen);
+        }
+    }
+
+    private void collectWordPrefixMatches(String q, List<Match> matches, IntObjectMap<Match> seen) {
+        SortedMap<String, PostingList> prefixed = words.subMap(q, q + Character.MAX_VALUE);
+        for(PostingList list : prefixed.values()) {
+            for(int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if(seen.containsKey(id)) continue;
+                String name = normalizedNames.get(id);
+                addMatch(id, rankOf(name, q, name.indexOf(q)), matches, seen);
+            }
+        }
+    }
+
+    private void collectShortSubstringMatches(String q, List<Match> matches, IntObjectMap<Match> seen) {
+        for(Product p : productsById.values()) {
+            int id = p.getProductId();
+            if(seen.containsKey(id)) continue;
+            String name = normalizedNames.get(id);
+            int at = name.indexOf(q);
+            if(at >= 0) addMatch(id, rankOf(name, q, at), matches, seen);
+        }
+    }
+
+    private void collectTypoMatches(String q, List<Match> matches, IntObjectMap<Match> seen) {
+        int maxEdits = q.length() <= 4 ? 1 : 2;
+        int queryTrigrams = q.length() - 2;
+        int threshold = Math.max(1, queryTrigrams - 3 * maxEdits);
+
+        List<PostingList> lists = new ArrayList<>();
+        for(int i = 0; i + 3 <= q.length(); i++) {
+            PostingList list = trigrams.get(trigram(q, i));
+            if(list != null && !lists.contains(list)) lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+
+        int missing = queryTrigrams - lists.size();
+        int candidateLists = Math.min(lists.size(), queryTrigrams - threshold + 1 - missing);
+        IntIntMap visited = new IntIntMap();
+        for(int i = 0; i < candidateLists; i++) {
+            PostingList list = lists.get(i);
+            for(int j = 0; j < list.size; j++) {
+                int id = list.ids[j];
+                if(seen.containsKey(id) || visited.addTo(id, 1) > 1) continue;
+                int shared = 0;
+                for(PostingList other : lists) {
+                    if(other.contains(id)) shared++;
+                }
+                if(shared < threshold) continue;
+                int distance = substringEditDistance(q, normalizedNames.get(id));
+                if(distance <= maxEdits) addMatch(id, MATCH_TYPO + distance, matches, seen);
+            }
+        }
+    }
+
+    private void addMatch(int id, int rank, List<Match> matches, IntObjectMap<Match> seen) {
+        Match match = new Match(productsById.get(id), rank, normalizedNames.get(id).length());
+        seen.put(id, match);
+        matches.add(match);
+    }
+
+    private static int rankOf(String name, String q, int at) {
+        if(at == 0) return name.length() == q.length() ? MATCH_EXACT : MATCH_PREFIX;
+        if(at > 0 && !Character.isLetterOrDigit(name.charAt(at - 1))) return MATCH_WORD_PREFIX;
+        return MATCH_SUBSTRING;
+    }
+
+    private static int substringEditDistance(String pattern, String text) {
+        int[] previous = new int[text.length() + 1];
+        int[] current = new int[text.length() + 1];
+        for(int i = 1; i <= pattern.length(); i++) {
+            current[0] = i;
+            for(int j = 1; j <= text.length(); j++) {
+                int cost = pattern.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for(int value : previous) best = Math.min(best, value);
+        return best;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    private static List<String> splitWords(String name) {
+        List<String> result = new ArrayList<>();
+        int start = -1;
+        for(int i = 0; i <= name.length(); i++) {
+            boolean isWordChar = i < name.length() && Character.isLetterOrDigit(name.charAt(i));
+            if(isWordChar && start == -1) start = i;
+            else if(!isWordChar && start != -1) {
+                result.add(name.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import enums.Category;
+import product.Product;
+import util.IntObjectMap;
+
+public class ProductRanking {
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int byScore = Long.compare(a.score, b.score);
+        return byScore != 0 ? byScore : Integer.compare(a.product.getProductId(), b.product.getProductId());
+    };
+
+    private final IntObjectMap<Entry> entries = new IntObjectMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(ORDER);
+    private final Map<Category, TreeSet<Entry>> rankedByCategory = new EnumMap<>(Category.class);
+
+    private static class Entry {
+        private final Product product;
+        private Category category;
+        private long score;
+
+        private Entry(Product product, long score) {
+            this.product = product;
+            this.category = product.getCategory();
+            this.score = score;
+        }
+    }
+
+    public ProductRanking() {
+        for(Category c : Category.values()) rankedByCategory.put(c, new TreeSet<>(ORDER));
+    }
+
+    public void add(Product product, long score) {
+        if(product == null) return;
+        remove(product);
+        Entry entry = new Entry(product, score);
+        entries.put(product.getProductId(), entry);
+        ranked.add(entry);
+        rankedByCategory.get(entry.category).add(entry);
+    }
+
+    public void remove(Product product) {
+        if(product == null) return;
+        Entry entry = entries.get(product.getProductId());
+        if(entry == null || entry.product != product) return;
+        entries.remove(product.getProductId());
+        ranked.remove(entry);
+        rankedByCategory.get(entry.category).remove(entry);
+    }
+
+    public void addScore(int productId, long delta) {
+        Entry entry = entries.get(productId);
+        if(entry == null || delta == 0) return;
+        ranked.remove(entry);
+        rankedByCategory.get(entry.category).remove(entry);
+        entry.score += delta;
+        entry.category = entry.product.getCategory();
+        ranked.add(entry);
+        rankedByCategory.get(entry.category).add(entry);
+    }
+
+    public void recategorize(Product product) {
+        if(product == null) return;
+        Entry entry = entries.get(product.getProductId());
+        if(entry == null || entry.product != product || entry.category == product.getCategory()) return;
+        rankedByCategory.get(entry.category).remove(entry);
+        entry.category = product.getCategory();
+        rankedByCategory.get(entry.category).add(entry);
+    }
+
+    public long getScore(int productId) {
+        Entry entry = entries.get(productId);
+        return entry == null ? 0 : entry.score;
+    }
+
+    public List<Product> top(int k, Category category) {
+        return collect(source(category).descendingIterator(), k);
+    }
+
+    public List<Product> bottom(int k, Category category) {
+        return collect(source(category).iterator(), k);
+    }
+
+    private TreeSet<Entry> source(Category category) {
+        return category == null ? ranked : rankedByCategory.get(category);
+    }
+
+    private static List<Product> collect(Iterator<Entry> iterator, int k) {
+        List<Product> result = new ArrayList<>(Math.max(0, k));
+        while(result.size() < k && iterator.hasNext()) result.add(iterator.next().product);
+        return result;
+    }
+}
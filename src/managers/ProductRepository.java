@@ -0,0 +1,10 @@
+package managers;
+
+import java.util.List;
+
+import product.Product;
+
+public interface ProductRepository {
+    List<Product> loadAll();
+    boolean saveAll(List<Product> products);
+}
@@ -0,0 +1,183 @@
+package managers;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import product.Product;
+import sales.Sale;
+import sales.SaleItem;
+import sales.StockReservation;
+import util.CsvReader;
+import util.IntObjectMap;
+import util.Money;
+
+public class SalesImporter {
+    private static final int MIN_CHUNK_CHARS = 1 << 16;
+
+    private final DataStore store;
+
+    private static class Row {
+        private final LocalDate date;
+        private final long subTotalCents;
+        private final long discountCents;
+        private final long totalCents;
+        private final List<SaleItem> items;
+        private final String error;
+
+        private Row(LocalDate date, long subTotalCents, long discountCents, long totalCents, List<SaleItem> items) {
+            this.date = date;
+            this.subTotalCents = subTotalCents;
+            this.discountCents = discountCents;
+            this.totalCents = totalCents;
+            this.items = items;
+            this.error = null;
+        }
+
+        private Row(String error) {
+            this.date = null;
+            this.subTotalCents = 0;
+            this.discountCents = 0;
+            this.totalCents = 0;
+            this.items = null;
+            this.error = error;
+        }
+    }
+
+    public SalesImporter(DataStore store) {
+        this.store = store;
+    }
+
+    public ImportReport importSales(Path path) {
+        long start = System.nanoTime();
+        char[] text;
+        try {
+            text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).toCharArray();
+        } catch (IOException e) {
+            e.printStackTrace();
+            List<String> rejections = new ArrayList<>();
+            rejections.add("Could not read " + path + ": " + e.getMessage());
+            return new ImportReport(0, 0, rejections, System.nanoTime() - start, false);
+        }
+
+        IntObjectMap<Product> productIndex = store.copyProductIndex();
+        int[] bounds = splitIntoChunks(text);
+        List<List<Row>> chunks = IntStream.range(0, bounds.length - 1)
+            .parallel()
+            .mapToObj(i -> parseChunk(text, bounds[i], bounds[i + 1], productIndex))
+            .collect(Collectors.toList());
+
+        int rowNumber = 0;
+        List<String> rejections = new ArrayList<>();
+        List<Row> accepted = new ArrayList<>();
+        List<StockReservation> reservations = new ArrayList<>();
+        for(List<Row> chunk : chunks) {
+            for(Row row : chunk) {
+                rowNumber++;
+                if(row.error != null) {
+                    rejections.add("Row " + rowNumber + ": " + row.error);
+                    continue;
+                }
+                StockReservation reservation = StockReservation.reserve(row.items);
+                if(reservation == null) {
+                    rejections.add("Row " + rowNumber + ": Product quantity is not enough");
+                } else {
+                    accepted.add(row);
+                    reservations.add(reservation);
+                }
+            }
+        }
+
+        List<Sale> sales = new ArrayList<>(accepted.size());
+        int saleId = accepted.isEmpty() ? 0 : IdAllocator.SALES.nextIds(accepted.size());
+        for(Row row : accepted) sales.add(new Sale(saleId++, row.date, row.items, null, row.subTotalCents, row.discountCents, row.totalCents));
+
+        boolean isCommitted = sales.isEmpty() || store.recordSales(sales);
+        if(!isCommitted) {
+            for(int i = reservations.size() - 1; i >= 0; i--) reservations.get(i).release();
+            rejections.add("Could not save the imported sales; no rows were committed");
+            return new ImportReport(rowNumber, 0, rejections, System.nanoTime() - start, false);
+        }
+        return new ImportReport(rowNumber, accepted.size(), rejections, System.nanoTime() - start, true);
+    }
+
+    private static int[] splitIntoChunks(char[] text) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(MIN_CHUNK_CHARS, text.length / (parallelism * 4) + 1);
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int at = 0;
+        while(at < text.length) {
+            int end = Math.min(text.length, at + chunkSize);
+            while(end < text.length && text[end - 1] != '\n') end++;
+            bounds.add(end);
+            at = end;
+        }
+        int[] result = new int[bounds.size()];
+        for(int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    private static List<Row> parseChunk(char[] text, int from, int to, IntObjectMap<Product> productIndex) {
+        List<Row> rows = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new CharArrayReader(text, from, to - from))) {
+            while(reader.nextRecord()) {
+                if(reader.fieldStartsWithIgnoreCase(0, "id")) continue;
+                rows.add(parseRow(reader, productIndex));
+            }
+        } catch (IOException e) {
+            rows.add(new Row("Unreadable chunk: " + e.getMessage()));
+        }
+        return rows;
+    }
+
+    private static Row parseRow(CsvReader reader, IntObjectMap<Product> productIndex) {
+        try {
+            if(reader.getFieldCount() < 6 || reader.isEmpty(5)) return new Row("Expected id, date, subtotal, discount, total and items");
+            LocalDate date = reader.getDate(1);
+            long subTotalCents = reader.getCents(2);
+            long discountCents = reader.getCents(3);
+            long totalCents = reader.getCents(4);
+            if(subTotalCents < 0 || discountCents < 0 || totalCents < 0) return new Row("Amounts cannot be negative");
+            if(subTotalCents - discountCents != totalCents) {
+                return new Row("Total " + Money.format(totalCents) + " is not subtotal " + Money.format(subTotalCents) + " minus discount " + Money.format(discountCents));
+            }
+
+            List<SaleItem> items = new ArrayList<>();
+            char[] chars = reader.getRecordBuffer();
+            int end = reader.getFieldEnd(5);
+            int pairStart = reader.getFieldStart(5);
+            while(pairStart < end) {
+                int pairEnd = pairStart;
+                int colon = -1;
+                while(pairEnd < end && chars[pairEnd] != ';') {
+                    if(chars[pairEnd] == ':') colon = pairEnd;
+                    pairEnd++;
+                }
+                if(colon == -1) return new Row("Invalid item " + new String(chars, pairStart, pairEnd - pairStart));
+                int productId = CsvReader.parseInt(chars, pairStart, colon);
+                int quantity = CsvReader.parseInt(chars, colon + 1, pairEnd);
+                Product p = productIndex.get(productId);
+                if(p == null) return new Row("Product " + productId + " not found");
+                if(quantity <= 0) return new Row("Quantity must be greater than 0");
+                items.add(SaleItem.restore(p, quantity));
+                pairStart = pairEnd + 1;
+            }
+            long itemsSubtotalCents = 0;
+            for(SaleItem item : items) itemsSubtotalCents += item.getItemSubtotalCents();
+            if(itemsSubtotalCents != subTotalCents) {
+                return new Row("Subtotal " + Money.format(subTotalCents) + " does not match the items at current prices (" + Money.format(itemsSubtotalCents) + ")");
+            }
+            return new Row(date, subTotalCents, discountCents, totalCents, items);
+        } catch (RuntimeException e) {
+            return new Row(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package managers;
+
+import java.util.List;
+
+import product.Product;
+import sales.Sale;
+import util.IntObjectMap;
+
+public interface SalesRepository {
+    List<Sale> loadAll(IntObjectMap<Product> productsById, boolean preserveLines);
+    default List<Sale> loadAll(IntObjectMap<Product> productsById) {
+        return loadAll(productsById, false);
+    }
+    boolean saveAll(List<Sale> sales);
+    boolean append(Sale sale);
+    boolean appendAll(List<Sale> sales);
+    default boolean compact(List<Sale> sales) {
+        return true;
+    }
+}
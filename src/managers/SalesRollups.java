@@ -0,0 +1,154 @@
+package managers;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import enums.Category;
+import enums.RollupPeriod;
+import product.Product;
+import sales.Sale;
+
+public class SalesRollups {
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final TreeMap<Long, List<Sale>> salesByDay = new TreeMap<>();
+    private final TreeMap<Long, SalesSummary> daily = new TreeMap<>();
+    private final TreeMap<Long, SalesSummary> weekly = new TreeMap<>();
+    private final TreeMap<Long, SalesSummary> monthly = new TreeMap<>();
+    private final Map<Sale, long[]> itemsBySale = new IdentityHashMap<>();
+
+    public synchronized void add(Sale sale, int sign) {
+        LocalDate date = sale.getSaleDate();
+        long day = date.toEpochDay();
+        long[] items;
+        if(sign > 0) {
+            salesByDay.computeIfAbsent(day, k -> new ArrayList<>()).add(sale);
+            items = itemsByCategory(sale);
+            itemsBySale.put(sale, items);
+        } else {
+            items = itemsBySale.remove(sale);
+            if(items == null) return;
+            List<Sale> sameDay = salesByDay.get(day);
+            if(sameDay != null) {
+                sameDay.remove(sale);
+                if(sameDay.isEmpty()) salesByDay.remove(day);
+            }
+        }
+
+        for(RollupPeriod period : RollupPeriod.values()) {
+            LocalDate start = periodStart(period, date);
+            TreeMap<Long, SalesSummary> buckets = bucketsFor(period);
+            SalesSummary bucket = buckets.computeIfAbsent(start.toEpochDay(), k -> new SalesSummary(start, periodEnd(period, start)));
+            bucket.add(sign, sign * sale.getTotalCents(), sign * sale.getDiscountCents());
+            for(int i = 0; i < items.length; i += 3) bucket.addItem(CATEGORIES[(int) items[i]], sign * items[i + 1], sign * items[i + 2]);
+            if(bucket.isEmpty()) buckets.remove(start.toEpochDay());
+        }
+    }
+
+    private static long[] itemsByCategory(Sale sale) {
+        long[] units = new long[CATEGORIES.length];
+        long[] revenueCents = new long[CATEGORIES.length];
+        boolean[] present = new boolean[CATEGORIES.length];
+        int categories = 0;
+        for(int line = 0; line < sale.getLineCount(); line++) {
+            Product p = sale.getLineProduct(line);
+            if(p == null) continue;
+            int c = p.getCategory().ordinal();
+            if(!present[c]) {
+                present[c] = true;
+                categories++;
+            }
+            units[c] += sale.getLineQuantity(line);
+            revenueCents[c] += sale.getLineTotalCents(line);
+        }
+        long[] items = new long[categories * 3];
+        int i = 0;
+        for(int c = 0; c < CATEGORIES.length; c++) {
+            if(!present[c]) continue;
+            items[i++] = c;
+            items[i++] = units[c];
+            items[i++] = revenueCents[c];
+        }
+        return items;
+    }
+
+    public synchronized List<Sale> listSales(LocalDate from, LocalDate to) {
+        List<Sale> result = new ArrayList<>();
+        if(from.isAfter(to)) return result;
+        for(List<Sale> sameDay : salesByDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) result.addAll(sameDay);
+        return result;
+    }
+
+    public synchronized List<SalesSummary> list(RollupPeriod period, LocalDate from, LocalDate to) {
+        List<SalesSummary> result = new ArrayList<>();
+        if(from.isAfter(to)) return result;
+        long start = periodStart(period, from).toEpochDay();
+        for(SalesSummary bucket : bucketsFor(period).subMap(start, true, to.toEpochDay(), true).values()) {
+            SalesSummary copy = new SalesSummary(bucket.getFrom(), bucket.getTo());
+            copy.add(bucket);
+            result.add(copy);
+        }
+        return result;
+    }
+
+    public synchronized SalesSummary summarize(LocalDate from, LocalDate to) {
+        SalesSummary summary = new SalesSummary(from, to);
+        long day = from.toEpochDay();
+        long last = to.toEpochDay();
+        while(day <= last) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            long monthEnd = periodEnd(RollupPeriod.MONTH, date).toEpochDay();
+            if(date.getDayOfMonth() == 1 && monthEnd <= last) {
+                addBucket(summary, monthly, day);
+                day = monthEnd + 1;
+                continue;
+            }
+            if(date.getDayOfWeek() == DayOfWeek.MONDAY && day + 6 <= last) {
+                addBucket(summary, weekly, day);
+                day += 7;
+                continue;
+            }
+            long nextMonday = date.with(TemporalAdjusters.next(DayOfWeek.MONDAY)).toEpochDay();
+            long next = Math.min(last + 1, Math.min(nextMonday, monthEnd + 1));
+            for(SalesSummary bucket : daily.subMap(day, true, next, false).values()) summary.add(bucket);
+            day = next;
+        }
+        return summary;
+    }
+
+    private static void addBucket(SalesSummary summary, NavigableMap<Long, SalesSummary> buckets, long start) {
+        SalesSummary bucket = buckets.get(start);
+        if(bucket != null) summary.add(bucket);
+    }
+
+    private TreeMap<Long, SalesSummary> bucketsFor(RollupPeriod period) {
+        switch(period) {
+            case WEEK: return weekly;
+            case MONTH: return monthly;
+            default: return daily;
+        }
+    }
+
+    private static LocalDate periodStart(RollupPeriod period, LocalDate date) {
+        switch(period) {
+            case WEEK: return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH: return date.withDayOfMonth(1);
+            default: return date;
+        }
+    }
+
+    private static LocalDate periodEnd(RollupPeriod period, LocalDate start) {
+        switch(period) {
+            case WEEK: return start.plusDays(6);
+            case MONTH: return start.withDayOfMonth(start.lengthOfMonth());
+            default: return start;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package managers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import product.Product;
+import sales.Sale;
+import util.IntObjectMap;
+
+public final class SalesSnapshot {
+    private static final int MAGIC = 0x534C5331;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8 + 8;
+    private static final int CHECKSUM_WINDOW = 4096;
+
+    private SalesSnapshot() {}
+
+    public static Path pathFor(Path csvPath) {
+        String fileName = csvPath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return csvPath.resolveSibling((dot > 0 ? fileName.substring(0, dot) : fileName) + ".bin");
+    }
+
+    public static boolean write(Path snapshotPath, Path csvPath, List<Sale> sales) {
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            long coveredBytes = Files.exists(csvPath) ? Files.size(csvPath) : 0;
+            long checksum = checksum(csvPath, coveredBytes);
+
+            int itemCount = 0;
+            for(Sale s : sales) itemCount += s.getLineCount();
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sales.size());
+                out.writeInt(itemCount);
+                out.writeLong(coveredBytes);
+                out.writeLong(checksum);
+
+                for(Sale s : sales) out.writeInt(s.getSaleId());
+                for(Sale s : sales) out.writeInt((int) s.getSaleDate().toEpochDay());
+                for(Sale s : sales) out.writeLong(s.getSubTotalCents());
+                for(Sale s : sales) out.writeLong(s.getDiscountCents());
+                for(Sale s : sales) out.writeLong(s.getTotalCents());
+
+                int offset = 0;
+                out.writeInt(offset);
+                for(Sale s : sales) {
+                    offset += s.getLineCount();
+                    out.writeInt(offset);
+                }
+                for(Sale s : sales) {
+                    for(int line = 0; line < s.getLineCount(); line++) {
+                        out.writeLong(((long) s.getLineProductId(line) << 32) | (s.getLineQuantity(line) & 0xFFFFFFFFL));
+                    }
+                }
+            }
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            try { Files.deleteIfExists(tempPath); } catch (IOException ignored) {}
+            return false;
+        }
+    }
+
+    public static long read(Path snapshotPath, Path csvPath, IntObjectMap<Product> productsById, Map<Integer, Sale> into) {
+        if(!Files.exists(snapshotPath) || !Files.exists(csvPath)) return -1;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_BYTES) return -1;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) return -1;
+            int rowCount = buffer.getInt(8);
+            int itemCount = buffer.getInt(12);
+            long coveredBytes = buffer.getLong(16);
+            long checksum = buffer.getLong(24);
+
+            long expectedSize = HEADER_BYTES + (long) rowCount * (4 + 4 + 8 + 8 + 8) + (rowCount + 1L) * 4 + (long) itemCount * 8;
+            if(channel.size() != expectedSize) return -1;
+            if(Files.size(csvPath) < coveredBytes || checksum(csvPath, coveredBytes) != checksum) return -1;
+
+            int idColumn = HEADER_BYTES;
+            int dateColumn = idColumn + rowCount * 4;
+            int subtotalColumn = dateColumn + rowCount * 4;
+            int discountColumn = subtotalColumn + rowCount * 8;
+            int totalColumn = discountColumn + rowCount * 8;
+            int offsetColumn = totalColumn + rowCount * 8;
+            int itemColumn = offsetColumn + (rowCount + 1) * 4;
+
+            for(int row = 0; row < rowCount; row++) {
+                int from = buffer.getInt(offsetColumn + row * 4);
+                int to = buffer.getInt(offsetColumn + (row + 1) * 4);
+                int[] items = new int[(to - from) * 2];
+                int length = 0;
+                for(int i = from; i < to; i++) {
+                    long packed = buffer.getLong(itemColumn + i * 8);
+                    int productId = (int) (packed >>> 32);
+                    if(productsById.get(productId) == null) continue;
+                    items[length++] = productId;
+                    items[length++] = (int) packed;
+                }
+                if(length < items.length) items = Arrays.copyOf(items, length);
+
+                Sale sale = Sale.restore(buffer.getInt(idColumn + row * 4),
+                                     LocalDate.ofEpochDay(buffer.getInt(dateColumn + row * 4)),
+                                     items, productsById,
+                                     buffer.getLong(subtotalColumn + row * 8),
+                                     buffer.getLong(discountColumn + row * 8),
+                                     buffer.getLong(totalColumn + row * 8));
+                into.put(sale.getSaleId(), sale);
+            }
+            return coveredBytes;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable sales snapshot " + snapshotPath + ": " + e.getMessage());
+            into.clear();
+            return -1;
+        }
+    }
+
+    private static long checksum(Path csvPath, long coveredBytes) throws IOException {
+        CRC32 crc = new CRC32();
+        if(coveredBytes == 0) return 0;
+        int length = (int) Math.min(CHECKSUM_WINDOW, coveredBytes);
+        ByteBuffer window = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long position = coveredBytes - length;
+            while(window.hasRemaining()) {
+                int n = channel.read(window, position + window.position());
+                if(n < 0) break;
+            }
+        }
+        window.flip();
+        crc.update(window);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,70 @@
+package managers;
+
+import java.time.LocalDate;
+
+import enums.Category;
+import util.Money;
+
+public class SalesSummary {
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private int saleCount;
+    private long revenueCents;
+    private long discountCents;
+    private final long[] unitsPerCategory = new long[CATEGORIES.length];
+    private final long[] revenueCentsPerCategory = new long[CATEGORIES.length];
+
+    SalesSummary(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    void add(int sign, long revenueCents, long discountCents) {
+        this.saleCount += sign;
+        this.revenueCents += revenueCents;
+        this.discountCents += discountCents;
+    }
+
+    void addItem(Category category, long units, long revenueCents) {
+        unitsPerCategory[category.ordinal()] += units;
+        revenueCentsPerCategory[category.ordinal()] += revenueCents;
+    }
+
+    void add(SalesSummary other) {
+        saleCount += other.saleCount;
+        revenueCents += other.revenueCents;
+        discountCents += other.discountCents;
+        for(int i = 0; i < CATEGORIES.length; i++) {
+            unitsPerCategory[i] += other.unitsPerCategory[i];
+            revenueCentsPerCategory[i] += other.revenueCentsPerCategory[i];
+        }
+    }
+
+    boolean isEmpty() {
+        if(saleCount != 0) return false;
+        for(int i = 0; i < CATEGORIES.length; i++) {
+            if(unitsPerCategory[i] != 0 || revenueCentsPerCategory[i] != 0) return false;
+        }
+        return true;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public int getSaleCount() { return saleCount; }
+    public long getRevenueCents() { return revenueCents; }
+    public long getDiscountCents() { return discountCents; }
+    public long getUnits(Category category) { return unitsPerCategory[category.ordinal()]; }
+    public long getRevenueCents(Category category) { return revenueCentsPerCategory[category.ordinal()]; }
+
+    public long getUnits() {
+        long units = 0;
+        for(long u : unitsPerCategory) units += u;
+        return units;
+    }
+
+    public long getAverageSaleCents() {
+        return saleCount == 0 ? 0 : Money.fraction(revenueCents, 1, saleCount);
+    }
+}
@@ -0,0 +1,74 @@
+package managers;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import users.User;
+
+public class SessionCache {
+    private static final int TOKEN_BYTES = 32;
+    private static final int PURGE_INTERVAL = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final long timeToLiveNanos;
+
+    private static class Session {
+        private final User user;
+        private volatile long expiresAt;
+
+        private Session(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public SessionCache(long timeToLiveNanos) {
+        if(timeToLiveNanos <= 0) throw new IllegalArgumentException("Session lifetime must be greater than 0");
+        this.timeToLiveNanos = timeToLiveNanos;
+    }
+
+    public String open(User user) {
+        if(user == null) throw new IllegalArgumentException("User cannot be null");
+        if(opened.incrementAndGet() % PURGE_INTERVAL == 0) purgeExpired();
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, System.nanoTime() + timeToLiveNanos));
+        return token;
+    }
+
+    public User resume(String token) {
+        if(token == null) return null;
+        Session session = sessions.get(token);
+        if(session == null) return null;
+        long now = System.nanoTime();
+        if(now - session.expiresAt >= 0) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + timeToLiveNanos;
+        return session.user;
+    }
+
+    public void close(String token) {
+        if(token != null) sessions.remove(token);
+    }
+
+    public void closeAll(int userId) {
+        sessions.values().removeIf(s -> s.user.getUserId() == userId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(s -> now - s.expiresAt >= 0);
+    }
+}
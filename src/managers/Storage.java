@@ -0,0 +1,30 @@
+package managers;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public interface Storage {
+    ProductRepository products();
+    SalesRepository sales();
+    UserRepository users();
+    String getName();
+    Path getMutationLogPath();
+    Path getIdsPath();
+
+    static Storage fromConfig() {
+        return open(Config.getString("storage", "csv"), FileManager.getDataDirectory());
+    }
+
+    static Storage open(String backend, Path directory) {
+        switch(backend.trim().toLowerCase()) {
+            case "csv": return new CsvStorage(directory);
+            case "binary": return new BinaryStorage(directory);
+            case "memory": return new MemoryStorage();
+            default: throw new IllegalArgumentException("Unknown storage backend: " + backend + " (expected csv, binary or memory)");
+        }
+    }
+
+    static Storage open(String backend, String directory) {
+        return open(backend, Paths.get(directory));
+    }
+}
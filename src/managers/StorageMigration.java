@@ -0,0 +1,128 @@
+package managers;
+
+import java.util.List;
+import java.util.Map;
+
+import product.Product;
+import sales.Sale;
+import users.User;
+import util.IntObjectMap;
+
+public class StorageMigration {
+    private final int products;
+    private final int users;
+    private final int sales;
+    private final long elapsedNanos;
+    private final boolean isCommitted;
+    private final String error;
+
+    private StorageMigration(int products, int users, int sales, long elapsedNanos, boolean isCommitted, String error) {
+        this.products = products;
+        this.users = users;
+        this.sales = sales;
+        this.elapsedNanos = elapsedNanos;
+        this.isCommitted = isCommitted;
+        this.error = error;
+    }
+
+    public static StorageMigration copy(Storage source, Storage target) {
+        if(source == null || target == null) throw new IllegalArgumentException("Source and target storage cannot be null");
+        long start = System.nanoTime();
+        List<Product> products = List.of();
+        List<User> users = List.of();
+        List<Sale> sales = List.of();
+        String error = null;
+        try {
+            PendingChanges pending = new PendingChanges(source.products().loadAll(), source.users().loadAll());
+            new WriteAheadLog(source.getMutationLogPath()).replay(pending);
+            products = pending.products;
+            users = pending.users;
+            sales = source.sales().loadAll(FileManager.indexProducts(products), true);
+
+            if(!target.products().saveAll(products)) error = "Could not save products";
+            else if(!target.users().saveAll(users)) error = "Could not save users";
+            else if(!target.sales().saveAll(sales)) error = "Could not save sales";
+            else if(!copyIdHighWaterMarks(source, target)) error = "Could not save id high-water marks";
+            else if(!new WriteAheadLog(target.getMutationLogPath()).truncate()) error = "Could not clear the target mutation log";
+            else error = verify(target, products, users, sales);
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+        }
+        return new StorageMigration(products.size(), users.size(), sales.size(), System.nanoTime() - start, error == null, error);
+    }
+
+    private static boolean copyIdHighWaterMarks(Storage source, Storage target) {
+        if(target.getIdsPath() == null) return true;
+        Map<String, Integer> highWaterMarks = FileManager.loadIdHighWaterMarks(target.getIdsPath());
+        FileManager.loadIdHighWaterMarks(source.getIdsPath()).forEach((k, v) -> highWaterMarks.merge(k, v, Math::max));
+        return FileManager.saveIdHighWaterMarks(target.getIdsPath(), highWaterMarks);
+    }
+
+    private static String verify(Storage target, List<Product> products, List<User> users, List<Sale> sales) {
+        List<Product> copiedProducts = target.products().loadAll();
+        if(copiedProducts.size() != products.size()) return "Target holds " + copiedProducts.size() + " of " + products.size() + " products";
+        int copiedUsers = target.users().loadAll().size();
+        if(copiedUsers != users.size()) return "Target holds " + copiedUsers + " of " + users.size() + " users";
+        List<Sale> copiedSales = target.sales().loadAll(FileManager.indexProducts(copiedProducts), true);
+        if(copiedSales.size() != sales.size()) return "Target holds " + copiedSales.size() + " of " + sales.size() + " sales";
+        IntObjectMap<Sale> copiedById = new IntObjectMap<>(copiedSales.size());
+        for(Sale s : copiedSales) copiedById.put(s.getSaleId(), s);
+        for(Sale s : sales) {
+            Sale copied = copiedById.get(s.getSaleId());
+            if(copied == null || !sameLines(s, copied)) return "Sale " + s.getSaleId() + " was not copied with all of its lines";
+        }
+        return null;
+    }
+
+    private static boolean sameLines(Sale a, Sale b) {
+        if(a.getLineCount() != b.getLineCount()) return false;
+        for(int i = 0; i < a.getLineCount(); i++) {
+            if(a.getLineProductId(i) != b.getLineProductId(i) || a.getLineQuantity(i) != b.getLineQuantity(i)) return false;
+        }
+        return true;
+    }
+
+    private static class PendingChanges implements WriteAheadLog.Replayer {
+        private final List<Product> products;
+        private final List<User> users;
+
+        PendingChanges(List<Product> products, List<User> users) {
+            this.products = products;
+            this.users = users;
+        }
+
+        public void upsertProduct(Product product) {
+            for(int i = 0; i < products.size(); i++) {
+                if(products.get(i).getProductId() == product.getProductId()) {
+                    products.set(i, product);
+                    return;
+                }
+            }
+            products.add(product);
+        }
+
+        public void deleteProduct(int productId) {
+            products.removeIf(p -> p.getProductId() == productId);
+        }
+
+        public void setStock(int productId, int stockQuantity) {
+            for(Product p : products) if(p.getProductId() == productId) p.setStockQuantity(stockQuantity);
+        }
+
+        public void upsertUser(User user) {
+            deleteUser(user.getUserId());
+            users.add(user);
+        }
+
+        public void deleteUser(int userId) {
+            users.removeIf(u -> u.getUserId() == userId);
+        }
+    }
+
+    public int getProducts() { return products; }
+    public int getUsers() { return users; }
+    public int getSales() { return sales; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public boolean isCommitted() { return isCommitted; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,10 @@
+package managers;
+
+import java.util.List;
+
+import users.User;
+
+public interface UserRepository {
+    List<User> loadAll();
+    boolean saveAll(List<User> users);
+}
@@ -1,45 +1,53 @@
 package managers;
 
-import java.util.ArrayList;
 import java.util.List;
 import users.*;
 
 public class UsersManager {
-    private List<User> users;
+    private DataStore store;
 
     public UsersManager() {
-        this.users = FileManager.loadUsers();
+        this.store = DataStore.getInstance();
     }
 
     public boolean addUser(User user) {
         if (user == null) return false;
-        this.users.add(user);
-        return FileManager.saveUsers(this.users);
+        return store.addUser(user);
     }
 
     public boolean removeUser(User user) {
         if (user == null) return false;
-        boolean removed = this.users.removeIf(u -> u.getUserId() == user.getUserId());
-        if (removed) return FileManager.saveUsers(this.users);
-        return false;
+        return store.removeUser(user);
     }
 
     public User findUserById(int userId) {
-        for (User u : this.users) {
-            if (u.getUserId() == userId) return u;
-        }
-        return null;
+        return store.findUserById(userId);
     }
 
     public User findUserByUsername(String username) {
-        if (username == null) return null;
-        for (User u : this.users) {
-            if (u.getUsername().equalsIgnoreCase(username)) return u;
+        return store.findUserByUsername(username);
+    }
+
+    public String login(String username, String password) {
+        User user = findUserByUsername(username);
+        if(user == null || password == null || password.trim().isEmpty()) return null;
+        if(!user.verifyPassword(password)) return null;
+        if(user.needsPasswordRehash()) {
+            user.setPassword(password);
+            store.saveUser(user);
         }
-        return null;
+        return store.openSession(user);
+    }
+
+    public User resumeSession(String token) {
+        return store.resumeSession(token);
+    }
+
+    public void logout(String token) {
+        store.closeSession(token);
     }
 
     public List<User> getUsers() {
-        return new ArrayList<>(this.users);
+        return store.listUsers();
     }
 }
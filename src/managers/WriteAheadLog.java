@@ -0,0 +1,192 @@
+package managers;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import product.Product;
+import users.User;
+import util.CsvReader;
+import util.CsvWriter;
+
+public class WriteAheadLog {
+    private static final String PRODUCT = "PRODUCT";
+    private static final String PRODUCT_DELETE = "PRODUCT_DELETE";
+    private static final String STOCK = "STOCK";
+    private static final String USER = "USER";
+    private static final String USER_DELETE = "USER_DELETE";
+    private static final String END_OF_RECORD = "#";
+
+    private final Path path;
+    private final boolean syncOnAppend;
+    private FileChannel channel;
+    private CsvWriter writer;
+    private long recordStart;
+    private int recordCount;
+
+    interface Replayer {
+        void upsertProduct(Product product);
+        void deleteProduct(int productId);
+        void setStock(int productId, int stockQuantity);
+        void upsertUser(User user);
+        void deleteUser(int userId);
+    }
+
+    public WriteAheadLog(Path path) {
+        this.path = path;
+        this.syncOnAppend = Config.getBoolean("walSync", true);
+    }
+
+    public synchronized int getRecordCount() { return recordCount; }
+
+    public synchronized boolean logProduct(Product product) {
+        return append(writer -> {
+            writer.field(PRODUCT);
+            FileManager.writeProduct(writer, product);
+        });
+    }
+
+    public synchronized boolean logProductRemoval(int productId) {
+        return append(writer -> writer.field(PRODUCT_DELETE).field(productId));
+    }
+
+    public synchronized boolean logStock(Product product) {
+        return append(writer -> writer.field(STOCK).field(product.getProductId()).field(product.getStockQuantity()));
+    }
+
+    public synchronized boolean logUser(User user) {
+        return append(writer -> {
+            writer.field(USER);
+            FileManager.writeUser(writer, user);
+        });
+    }
+
+    public synchronized boolean logUserRemoval(int userId) {
+        return append(writer -> writer.field(USER_DELETE).field(userId));
+    }
+
+    synchronized int replay(Replayer target) {
+        if(path == null || !Files.exists(path)) return 0;
+        int applied = 0;
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path))) {
+            while(reader.nextRecord()) {
+                int last = reader.getFieldCount() - 1;
+                if(last < 1 || !reader.fieldEquals(last, END_OF_RECORD, false)) {
+                    System.err.println("Ignoring incomplete write-ahead log record");
+                    continue;
+                }
+                try {
+                    if(reader.fieldEquals(0, PRODUCT, false)) {
+                        Product product = FileManager.parseProduct(reader, 1);
+                        if(product == null) continue;
+                        target.upsertProduct(product);
+                    } else if(reader.fieldEquals(0, PRODUCT_DELETE, false)) {
+                        target.deleteProduct(reader.getInt(1));
+                    } else if(reader.fieldEquals(0, STOCK, false)) {
+                        target.setStock(reader.getInt(1), reader.getInt(2));
+                    } else if(reader.fieldEquals(0, USER, false)) {
+                        User user = FileManager.parseUser(reader, 1);
+                        if(user == null) continue;
+                        target.upsertUser(user);
+                    } else if(reader.fieldEquals(0, USER_DELETE, false)) {
+                        target.deleteUser(reader.getInt(1));
+                    } else {
+                        continue;
+                    }
+                    applied++;
+                } catch (RuntimeException e) {
+                    System.err.println("Ignoring unreadable write-ahead log record: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recordCount = applied;
+        return applied;
+    }
+
+    public synchronized boolean truncate() {
+        try {
+            if(path == null) {
+                recordCount = 0;
+                return true;
+            }
+            if(channel != null) {
+                writer.flush();
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                recordStart = 0;
+            } else {
+                Files.deleteIfExists(path);
+            }
+            recordCount = 0;
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public synchronized void close() {
+        if(channel == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+        writer = null;
+    }
+
+    private boolean open() {
+        if(channel != null) return true;
+        try {
+            channel = FileManager.openJournal(path);
+            writer = new CsvWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            recordStart = channel.position();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private boolean append(FileManager.RecordWriter fields) {
+        if(path == null) return true;
+        if(!open()) return false;
+        try {
+            fields.write(writer);
+            writer.field(END_OF_RECORD);
+            writer.endRecord();
+            writer.flush();
+            if(syncOnAppend) channel.force(false);
+            recordStart = channel.position();
+            recordCount++;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            discard();
+            return false;
+        }
+    }
+
+    private void discard() {
+        try {
+            channel.truncate(recordStart);
+            if(syncOnAppend) channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+        writer = null;
+    }
+}
@@ -1,6 +1,7 @@
 package offers;
 
 import enums.*;
+import util.Money;
 
 public class BuyXGetYFree implements DiscountStrategy {
     private int buyQuantity;
@@ -12,10 +13,22 @@ public class BuyXGetYFree implements DiscountStrategy {
     }
 
     @Override
-    public double applyDiscount(double subtotal) {
+    public long applyDiscount(long subtotalCents) {
         int totalQuantity = buyQuantity + freeQuantity;
-        double discountAmount = subtotal * ((double) freeQuantity / totalQuantity);
-        return discountAmount;
+        return Money.fraction(subtotalCents, freeQuantity, totalQuantity);
+    }
+
+    @Override
+    public long applyDiscount(long unitPriceCents, int quantity) {
+        int groupSize = buyQuantity + freeQuantity;
+        if(groupSize <= 0 || freeQuantity <= 0) return 0;
+        int freeUnits = (quantity / groupSize) * freeQuantity;
+        return Money.times(unitPriceCents, freeUnits);
+    }
+
+    @Override
+    public boolean isQuantityBased() {
+        return true;
     }
 
     @Override
@@ -1,10 +1,17 @@
 package offers;
 
 import enums.*;
+import util.Money;
 
 public interface DiscountStrategy {
      DiscountStrategies getDiscountStrategy();
-     double applyDiscount(double subtotal);
+     long applyDiscount(long subtotalCents);
+     default long applyDiscount(long unitPriceCents, int quantity) {
+        return applyDiscount(Money.times(unitPriceCents, quantity));
+    }
+     default boolean isQuantityBased() {
+        return false;
+    }
      default boolean isActive() {
         return getDiscountStrategy() != DiscountStrategies.NO_DISCOUNT;
     }
@@ -4,8 +4,8 @@ import enums.*;
 
 public class NoDiscount implements DiscountStrategy {
     @Override
-    public double applyDiscount(double subtotal) {
-        return 0.0;
+    public long applyDiscount(long subtotalCents) {
+        return 0;
     }
 
     @Override
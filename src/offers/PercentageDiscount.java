@@ -1,6 +1,7 @@
 package offers;
 
 import enums.DiscountStrategies;
+import util.Money;
 
 public class PercentageDiscount implements DiscountStrategy {
     private double percentage;
@@ -10,8 +11,8 @@ public class PercentageDiscount implements DiscountStrategy {
     }
 
     @Override
-    public double applyDiscount(double subtotal) {
-        return subtotal - (subtotal * (percentage / 100));
+    public long applyDiscount(long subtotalCents) {
+        return Money.percentage(subtotalCents, percentage);
     }
 
     @Override
@@ -4,13 +4,13 @@ import enums.*;
 public class NonPerishableProduct extends Product {
     private int warrantyMonths;
 
-    public NonPerishableProduct(String name, Category category, double unitPrice, int stockQuantity, int lowStockQuantityThreshold, int warrantyMonths) {
-        super(name, category, unitPrice, stockQuantity, lowStockQuantityThreshold);
+    public NonPerishableProduct(String name, Category category, long unitPriceCents, int stockQuantity, int lowStockQuantityThreshold, int warrantyMonths) {
+        super(name, category, unitPriceCents, stockQuantity, lowStockQuantityThreshold);
         setWarrantyMonths(warrantyMonths);
     }
 
-    public NonPerishableProduct(int productId, String name, Category category, double unitPrice, int stockQuantity, int lowStockQuantityThreshold, int warrantyMonths) {
-        super(productId, name, category, unitPrice, stockQuantity, lowStockQuantityThreshold);
+    public NonPerishableProduct(int productId, String name, Category category, long unitPriceCents, int stockQuantity, int lowStockQuantityThreshold, int warrantyMonths) {
+        super(productId, name, category, unitPriceCents, stockQuantity, lowStockQuantityThreshold);
         setWarrantyMonths(warrantyMonths);
     }
 
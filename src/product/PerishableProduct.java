@@ -6,13 +6,13 @@ public class PerishableProduct extends Product {
     private static final int DAYS_UNTIL_NEAR_EXPIRY = 4;
     private LocalDate expiryDate;
 
-    public PerishableProduct(String name, Category category, double unitPrice, int stockQuantity, int lowStockQuantityThreshold, LocalDate expiryDate) {
-        super(name, category, unitPrice, stockQuantity, lowStockQuantityThreshold);
+    public PerishableProduct(String name, Category category, long unitPriceCents, int stockQuantity, int lowStockQuantityThreshold, LocalDate expiryDate) {
+        super(name, category, unitPriceCents, stockQuantity, lowStockQuantityThreshold);
         setExpiryDate(expiryDate);
     }
     
-    public PerishableProduct(int productId, String name, Category category, double unitPrice, int stockQuantity, int lowStockQuantityThreshold, LocalDate expiryDate) {
-        super(productId, name, category, unitPrice, stockQuantity, lowStockQuantityThreshold);
+    public PerishableProduct(int productId, String name, Category category, long unitPriceCents, int stockQuantity, int lowStockQuantityThreshold, LocalDate expiryDate) {
+        super(productId, name, category, unitPriceCents, stockQuantity, lowStockQuantityThreshold);
         if (expiryDate == null) throw new IllegalArgumentException("Expiry date cannot be null");
         this.expiryDate = expiryDate;
     }
@@ -30,7 +30,9 @@ public class PerishableProduct extends Product {
 
    public void setExpiryDate(LocalDate newDate) {
        if (newDate == null || newDate.isBefore(LocalDate.now())) throw new IllegalArgumentException("Expiry date must be today or a future date");
+       LocalDate oldDate = this.expiryDate;
        this.expiryDate = newDate;
+       if (oldDate != null && !oldDate.equals(newDate)) for (ProductListener l : getListeners()) l.onExpiryDateChanged(this, oldDate);
     }
 
 }
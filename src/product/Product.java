@@ -1,48 +1,60 @@
 package product;
 import offers.*;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import enums.*;
+import managers.IdAllocator;
+import util.Money;
 
 public abstract class Product {
-    private static int idCounter = 0;
-    private static boolean idCounterInitialized = false;
+    private static final List<ProductListener> listeners = new CopyOnWriteArrayList<>();
+    private static final AtomicIntegerFieldUpdater<Product> STOCK = AtomicIntegerFieldUpdater.newUpdater(Product.class, "stockQuantity");
     private int productId;
     private String name;
     private Category category;
-    private double unitPrice;
-    private int stockQuantity;
-    private int lowStockQuantityThreshold;
+    private long unitPriceCents;
+    private volatile int stockQuantity;
+    private volatile int lowStockQuantityThreshold;
     private DiscountStrategy discountStrategy;
+    private volatile long unitDiscountCents = -1;
 
 
     public static void initializeIdCounter(List<Product> existingProducts) {
-        if (!idCounterInitialized && existingProducts != null) {
-            idCounter = existingProducts.stream()
-                    .mapToInt(Product::getProductId)
-                    .max()
-                    .orElse(0);
-            idCounterInitialized = true;
-        }
+        if (existingProducts == null) return;
+        for (Product p : existingProducts) IdAllocator.PRODUCTS.observe(p.getProductId());
+    }
+
+    public static void addListener(ProductListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public static void removeListener(ProductListener listener) {
+        listeners.remove(listener);
+    }
+
+    static List<ProductListener> getListeners() {
+        return listeners;
     }
 
-    public Product(String name, Category category, double unitPrice, int stockQuantity, int lowStockQuantityThreshold) {
-        this(++idCounter, name, category, unitPrice, stockQuantity, lowStockQuantityThreshold);
+    public Product(String name, Category category, long unitPriceCents, int stockQuantity, int lowStockQuantityThreshold) {
+        this(IdAllocator.PRODUCTS.nextId(), name, category, unitPriceCents, stockQuantity, lowStockQuantityThreshold);
     }
 
-    public Product(int productId, String name, Category category, double unitPrice, int stockQuantity, int lowStockQuantityThreshold) {
+    public Product(int productId, String name, Category category, long unitPriceCents, int stockQuantity, int lowStockQuantityThreshold) {
         if(productId <= 0) throw new IllegalArgumentException("Product ID must be greater than 0");
         if(name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Product name cannot be empty");
         if(category == null) throw new IllegalArgumentException("Category cannot be empty");
-        if(unitPrice < 0) throw new IllegalArgumentException("Unit price cannot be negative");
+        if(unitPriceCents < 0) throw new IllegalArgumentException("Unit price cannot be negative");
         if(stockQuantity < 0) throw new IllegalArgumentException("Stock quantity cannot be negative");
         if(lowStockQuantityThreshold < 0) throw new IllegalArgumentException("Low stock quantity threshold cannot be negative");
 
-        if (productId > idCounter) idCounter = productId;
+        IdAllocator.PRODUCTS.observe(productId);
 
         this.productId = productId;
         this.name = name;
         this.category = category;
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = unitPriceCents;
         this.stockQuantity = stockQuantity;
         this.lowStockQuantityThreshold = lowStockQuantityThreshold;
         this.discountStrategy= new NoDiscount();
@@ -50,16 +62,28 @@ public abstract class Product {
 
     public boolean increaseStock(int increment) {
         if(increment <= 0) return false;
-        stockQuantity += increment;
+        int threshold = lowStockQuantityThreshold;
+        int oldStock = STOCK.getAndAdd(this, increment);
+        fireLowStockChange(oldStock <= threshold, oldStock + increment <= threshold);
         return true;
     }
 
     public boolean decreaseStock(int decrement) {
-        if(decrement <= 0 || stockQuantity < decrement) return false;
-        this.stockQuantity -= decrement;
+        if(decrement <= 0) return false;
+        int oldStock;
+        do {
+            oldStock = stockQuantity;
+            if(oldStock < decrement) return false;
+        } while(!STOCK.compareAndSet(this, oldStock, oldStock - decrement));
+        int threshold = lowStockQuantityThreshold;
+        fireLowStockChange(oldStock <= threshold, oldStock - decrement <= threshold);
         return true;
     }
 
+    private void fireLowStockChange(boolean wasLowStock, boolean isLowStock) {
+        if(wasLowStock != isLowStock) for(ProductListener l : listeners) l.onLowStockChanged(this, isLowStock);
+    }
+
     public boolean isLowStock() {
         return this.stockQuantity <= this.lowStockQuantityThreshold;
     }
@@ -72,16 +96,29 @@ public abstract class Product {
         return discountStrategy.isActive();
     }
     
-    public double getDiscountedUnitPrice() {
-        double discount = discountStrategy.applyDiscount(unitPrice);
-        return unitPrice - discount;
+    public long getDiscountedUnitPriceCents() {
+        return unitPriceCents - getUnitDiscountCents();
+    }
+
+    public long getLineDiscountCents(int quantity) {
+        if(discountStrategy.isQuantityBased()) return discountStrategy.applyDiscount(unitPriceCents, quantity);
+        return Money.times(getUnitDiscountCents(), quantity);
+    }
+
+    private long getUnitDiscountCents() {
+        long cached = unitDiscountCents;
+        if(cached >= 0) return cached;
+        synchronized (this) {
+            if(unitDiscountCents < 0) unitDiscountCents = Math.max(0, Math.min(unitPriceCents, discountStrategy.applyDiscount(unitPriceCents, 1)));
+            return unitDiscountCents;
+        }
     }
 
     public void productInformation() {
         System.out.println("Product ID      :: " + productId);
         System.out.println("Product Name    :: " + name);
         System.out.println("Product Type    :: " + this.getProductType());
-        System.out.println("Unit Price      :: $" + unitPrice);
+        System.out.println("Unit Price      :: " + getPriceDisplay());
         System.out.println("Stock Quantity  :: " + stockQuantity);
         System.out.println("Category        :: " + category);
         System.out.println("Low Threshold   :: " + lowStockQuantityThreshold);
@@ -92,7 +129,7 @@ public abstract class Product {
 
     public int getProductId() { return productId; }
     public String getName() { return name; }
-    public double getUnitPrice() { return unitPrice; }
+    public long getUnitPriceCents() { return unitPriceCents; }
     public int getStockQuantity() { return stockQuantity; }
     public Category getCategory() { return category; }
     public int getLowStockQuantityThreshold() { return lowStockQuantityThreshold; }
@@ -111,7 +148,7 @@ public abstract class Product {
     }
 
     public String getPriceDisplay() {
-        return "$" + unitPrice;
+        return "$" + Money.format(unitPriceCents);
     }
 
     public String getLowStockDisplay() {
@@ -119,32 +156,42 @@ public abstract class Product {
     }
     public abstract String getProductType();
 
-    public void setDiscountStrategy(DiscountStrategy discountStrategy) {
+    public synchronized void setDiscountStrategy(DiscountStrategy discountStrategy) {
         this.discountStrategy = (discountStrategy == null) ? new NoDiscount() : discountStrategy;
+        this.unitDiscountCents = -1;
     }
 
     public void setName(String name) {
         if(name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Product name cannot be empty");
+        String oldName = this.name;
         this.name = name;
+        if(!oldName.equals(name)) for(ProductListener l : listeners) l.onNameChanged(this, oldName);
     }
     
-    public void setUnitPrice(double newUnitPrice) {
-        if(newUnitPrice < 0) throw new IllegalArgumentException("Unit price cannot be negative");
-        this.unitPrice = newUnitPrice;
+    public synchronized void setUnitPriceCents(long newUnitPriceCents) {
+        if(newUnitPriceCents < 0) throw new IllegalArgumentException("Unit price cannot be negative");
+        this.unitPriceCents = newUnitPriceCents;
+        this.unitDiscountCents = -1;
     }
 
     public void setLowStockQuantityThreshold(int newLowStockQuantityThreshold) {
         if(newLowStockQuantityThreshold < 0) throw new IllegalArgumentException("Low stock quantity threshold cannot be negative");
+        boolean wasLowStock = isLowStock();
         this.lowStockQuantityThreshold = newLowStockQuantityThreshold;
+        fireLowStockChange(wasLowStock, isLowStock());
     }
 
     public void setStockQuantity(int newstockQuantity) {
         if(newstockQuantity < 0) throw new IllegalArgumentException("Stock quantity cannot be negative");
-        this.stockQuantity = newstockQuantity;
+        int threshold = lowStockQuantityThreshold;
+        int oldStock = STOCK.getAndSet(this, newstockQuantity);
+        fireLowStockChange(oldStock <= threshold, newstockQuantity <= threshold);
     }
 
     public void setCategory(Category newcategory) {
         if(newcategory == null) throw new IllegalArgumentException("Category cannot be empty");
+        Category oldCategory = this.category;
         this.category = newcategory;
+        if(oldCategory != newcategory) for(ProductListener l : listeners) l.onCategoryChanged(this, oldCategory);
     }
 }
@@ -0,0 +1,12 @@
+package product;
+
+import java.time.LocalDate;
+
+import enums.Category;
+
+public interface ProductListener {
+    default void onNameChanged(Product product, String oldName) {}
+    default void onCategoryChanged(Product product, Category oldCategory) {}
+    default void onExpiryDateChanged(PerishableProduct product, LocalDate oldExpiryDate) {}
+    default void onLowStockChanged(Product product, boolean isLowStock) {}
+}
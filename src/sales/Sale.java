@@ -4,73 +4,82 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
-import managers.FileManager;
+import enums.CheckoutStatus;
+import managers.DataStore;
+import managers.IdAllocator;
 import offers.DiscountStrategy;
 import offers.NoDiscount;
 import product.Product;
+import util.IntObjectMap;
+import util.Money;
 
 public class Sale {
-    private static int idCounter = 0;
-    private static boolean idCounterInitialized = false;
-    
+    private static final DiscountStrategy NO_DISCOUNT = new NoDiscount();
+
     private int saleId;
     private LocalDate saleDate;
-    private List<SaleItem> items;
+    private volatile List<SaleItem> items;
+    private volatile int[] packedItems;
+    private IntObjectMap<Product> productsById;
     private DiscountStrategy discountStrategy;
     
-    private double itemsSubtotal;
-    private double itemDiscountsTotal;
-    private double subTotal;
-    private double saleDiscountAmount;
-    private double discountAmount;
-    private double totalAmount;
-
-    private static void initIdCounterIfNeeded() {
-        if (!idCounterInitialized) {
-            idCounterInitialized = true;
-            List<Sale> existingSales = FileManager.loadSales();
-            idCounter = existingSales.stream()
-                    .mapToInt(Sale::getSaleId)
-                    .max()
-                    .orElse(0);
-        }
-    }
-    
+    private long subTotalCents;
+    private long discountCents;
+    private long totalCents;
+
     public Sale(List<SaleItem> items, DiscountStrategy discountStrategy) {
-        initIdCounterIfNeeded();
-        this.saleId = ++idCounter;
+        this.saleId = IdAllocator.SALES.nextId();
         this.saleDate = LocalDate.now();
         this.items = new ArrayList<>(items);
-        this.discountStrategy = discountStrategy != null ? discountStrategy : new NoDiscount();
+        this.discountStrategy = discountStrategy != null ? discountStrategy : NO_DISCOUNT;
         recalcTotals();
     }
 
     public Sale(int saleId, LocalDate saleDate, List<SaleItem> items, DiscountStrategy discountStrategy) {
         validateConstructorArgs(saleId, saleDate, items);
-        initIdCounterIfNeeded();
+        IdAllocator.SALES.observe(saleId);
         this.saleId = saleId;
         this.saleDate = saleDate;
         this.items = new ArrayList<>(items);
-        this.discountStrategy = discountStrategy != null ? discountStrategy : new NoDiscount();
+        this.discountStrategy = discountStrategy != null ? discountStrategy : NO_DISCOUNT;
         recalcTotals();
     }
 
     public Sale(int saleId, LocalDate saleDate, List<SaleItem> items, DiscountStrategy discountStrategy,
-                double storedSubTotal, double storedDiscountAmount, double storedTotalAmount) {
+                long storedSubTotalCents, long storedDiscountCents, long storedTotalCents) {
         validateConstructorArgs(saleId, saleDate, items);
-        initIdCounterIfNeeded();
+        IdAllocator.SALES.observe(saleId);
         this.saleId = saleId;
         this.saleDate = saleDate;
         this.items = new ArrayList<>(items);
-        this.discountStrategy = discountStrategy != null ? discountStrategy : new NoDiscount();
+        this.discountStrategy = discountStrategy != null ? discountStrategy : NO_DISCOUNT;
         
-        this.subTotal = storedSubTotal;
-        this.discountAmount = storedDiscountAmount;
-        this.totalAmount = storedTotalAmount;
+        this.subTotalCents = storedSubTotalCents;
+        this.discountCents = storedDiscountCents;
+        this.totalCents = storedTotalCents;
+    }
         
-        this.itemsSubtotal = calculateItemsSubtotal();
-        this.itemDiscountsTotal = calculateItemDiscountsTotal();
-        this.saleDiscountAmount = Math.max(0, storedDiscountAmount - itemDiscountsTotal);
+    private Sale(int saleId, LocalDate saleDate, int[] packedItems, IntObjectMap<Product> productsById,
+                 long storedSubTotalCents, long storedDiscountCents, long storedTotalCents) {
+        IdAllocator.SALES.observe(saleId);
+        this.saleId = saleId;
+        this.saleDate = saleDate;
+        this.packedItems = packedItems;
+        this.productsById = productsById;
+        this.discountStrategy = NO_DISCOUNT;
+
+        this.subTotalCents = storedSubTotalCents;
+        this.discountCents = storedDiscountCents;
+        this.totalCents = storedTotalCents;
+    }
+
+    public static Sale restore(int saleId, LocalDate saleDate, int[] packedItems, IntObjectMap<Product> productsById,
+                               long storedSubTotalCents, long storedDiscountCents, long storedTotalCents) {
+        if (saleId <= 0) throw new IllegalArgumentException("Sale ID must be greater than 0");
+        if (saleDate == null) throw new IllegalArgumentException("Sale date cannot be null");
+        if (packedItems == null || packedItems.length % 2 != 0) throw new IllegalArgumentException("Items must be product ID and quantity pairs");
+        if (productsById == null) throw new IllegalArgumentException("Products cannot be null");
+        return new Sale(saleId, saleDate, packedItems, productsById, storedSubTotalCents, storedDiscountCents, storedTotalCents);
     }
     
     private void validateConstructorArgs(int saleId, LocalDate saleDate, List<SaleItem> items) {
@@ -78,29 +87,87 @@ public class Sale {
         if (saleDate == null) throw new IllegalArgumentException("Sale date cannot be null");
         if (items == null) throw new IllegalArgumentException("Items cannot be null");
     }
+
+    List<SaleItem> items() {
+        List<SaleItem> hydrated = items;
+        return hydrated != null ? hydrated : hydrate();
+    }
+
+    private synchronized List<SaleItem> hydrate() {
+        if (items == null) {
+            int[] packed = packedItems;
+            List<SaleItem> decoded = new ArrayList<>(packed.length / 2);
+            for (int i = 0; i < packed.length; i += 2) {
+                Product p = productsById.get(packed[i]);
+                if (p != null) decoded.add(SaleItem.restore(p, packed[i + 1]));
+            }
+            items = decoded;
+        }
+        return items;
+    }
+
+    private List<SaleItem> mutableItems() {
+        List<SaleItem> hydrated = items();
+        packedItems = null;
+        productsById = null;
+        return hydrated;
+    }
+
+    public boolean isHydrated() {
+        return items != null;
+    }
+
+    public int getLineCount() {
+        int[] packed = packedItems;
+        return packed != null ? packed.length / 2 : items.size();
+    }
+
+    public int getLineProductId(int line) {
+        int[] packed = packedItems;
+        return packed != null ? packed[2 * line] : items.get(line).getProduct().getProductId();
+    }
+
+    public int getLineQuantity(int line) {
+        int[] packed = packedItems;
+        return packed != null ? packed[2 * line + 1] : items.get(line).getQuantity();
+    }
+
+    public Product getLineProduct(int line) {
+        int[] packed = packedItems;
+        IntObjectMap<Product> index = productsById;
+        if (packed != null && index != null) return index.get(packed[2 * line]);
+        return items.get(line).getProduct();
+    }
+
+    public long getLineTotalCents(int line) {
+        int[] packed = packedItems;
+        if (packed == null) return items.get(line).getSaleTotalPriceCents();
+        Product p = getLineProduct(line);
+        return p == null ? 0 : SaleItem.lineTotalCents(p, packed[2 * line + 1]);
+    }
     
-    private double calculateItemsSubtotal() {
-        return items.stream()
-                .mapToDouble(i -> i.getProduct().getUnitPrice() * i.getQuantity())
-                .sum();
+    private long calculateItemsSubtotal() {
+        long total = 0;
+        for (int i = 0; i < items.size(); i++) total += items.get(i).getItemSubtotalCents();
+        return total;
     }
     
-    private double calculateItemDiscountsTotal() {
-        return items.stream()
-                .mapToDouble(SaleItem::getItemDiscount)
-                .sum();
+    private long calculateItemDiscountsTotal() {
+        long total = 0;
+        for (int i = 0; i < items.size(); i++) total += items.get(i).getItemDiscountCents();
+        return total;
     }
 
     public boolean addSaleItem(SaleItem item) {
         if (item == null) return false;
-        items.add(item);
+        mutableItems().add(item);
         recalcTotals();
         return true;
     }
 
     public boolean removeSaleItem(SaleItem item) {
         if (item == null) return false;
-        boolean removed = items.remove(item);
+        boolean removed = mutableItems().remove(item);
         if (removed) {
             recalcTotals();
         }
@@ -108,7 +175,7 @@ public class Sale {
     }
 
     public boolean removeSaleItemById(int productId) {
-        boolean removed = items.removeIf(i -> i.getProduct().getProductId() == productId);
+        boolean removed = mutableItems().removeIf(i -> i.getProduct().getProductId() == productId);
         if (removed) {
             recalcTotals();
         }
@@ -116,63 +183,55 @@ public class Sale {
     }
 
     private void recalcTotals() {
-        itemsSubtotal = calculateItemsSubtotal();
-        itemDiscountsTotal = calculateItemDiscountsTotal();
-        subTotal = itemsSubtotal - itemDiscountsTotal;
-        saleDiscountAmount = discountStrategy.applyDiscount(subTotal);
-        discountAmount = itemDiscountsTotal + saleDiscountAmount;
-        totalAmount = subTotal - saleDiscountAmount;
+        mutableItems();
+        long itemsSubtotalCents = calculateItemsSubtotal();
+        long itemDiscountsTotalCents = calculateItemDiscountsTotal();
+        long saleDiscountCents = discountStrategy.applyDiscount(itemsSubtotalCents - itemDiscountsTotalCents);
+        subTotalCents = itemsSubtotalCents;
+        discountCents = itemDiscountsTotalCents + saleDiscountCents;
+        totalCents = subTotalCents - discountCents;
     }
 
     public void generateReceipt() {
         System.out.println("Sale ID    :: " + saleId);
         System.out.println("Date       :: " + saleDate);
         System.out.println("Items      :: \n");
-        for (SaleItem item : items) {
-            System.out.printf("   ├─ %-20s x%d = %5.2f$%n", 
+        for (SaleItem item : items()) {
+            System.out.printf("   ├─ %-20s x%d = %5s$%n", 
                     item.getProduct().getName(), 
                     item.getQuantity(), 
-                    item.getSaleTotalPrice());
+                    Money.format(item.getSaleTotalPriceCents()));
         }
-        System.out.printf("%n- Subtotal   :: %5.2f$%n", subTotal);
-        System.out.printf("- Discount   :: %5.2f$%n", discountAmount);
-        System.out.printf("- Total      :: %5.2f$%n", totalAmount);
+        System.out.printf("%n- Subtotal   :: %5s$%n", Money.format(subTotalCents));
+        System.out.printf("- Discount   :: %5s$%n", Money.format(discountCents));
+        System.out.printf("- Total      :: %5s$%n", Money.format(totalCents));
     }
 
     public LocalDate getSaleDate() { return saleDate; }
-    public List<SaleItem> getSaleItems() { return new ArrayList<>(items); }
-    public double getSubTotal() { return subTotal; }
-    public double getDiscountAmount() { return discountAmount; }
+    public List<SaleItem> getSaleItems() { return new ArrayList<>(items()); }
+    public long getSubTotalCents() { return subTotalCents; }
+    public long getDiscountCents() { return discountCents; }
     public int getSaleId() { return saleId; }
-    public double getTotal() { return totalAmount; }
+    public long getTotalCents() { return totalCents; }
 
-    public void processSale() {
-        for (SaleItem item : this.items) {
-            Product p = item.getProduct();
-            int qty = item.getQuantity();
-            p.decreaseStock(qty);
-        }
-        
-        List<Sale> allSales = FileManager.loadSales();
-        boolean found = false;
-        for (int i = 0; i < allSales.size(); i++) {
-            if (allSales.get(i).getSaleId() == this.saleId) {
-                allSales.set(i, this);
-                found = true;
-                break;
-            }
-        }
-        if (!found) {
-            allSales.add(this);
-        }
-        
-        FileManager.saveSales(allSales);
-        FileManager.saveProducts(FileManager.loadProducts());
+    public boolean processSale() {
+        if (checkout() != CheckoutStatus.RECORDED) return false;
         generateReceipt();
+        return true;
+    }
+
+    public CheckoutStatus checkout() {
+        StockReservation reservation = StockReservation.reserve(items());
+        if (reservation == null) return CheckoutStatus.OUT_OF_STOCK;
+        if (!DataStore.getInstance().recordSale(this)) {
+            reservation.release();
+            return CheckoutStatus.NOT_SAVED;
+        }
+        return CheckoutStatus.RECORDED;
     }
     
     public void setDiscountStrategy(DiscountStrategy newDiscountStrategy) {
-        this.discountStrategy = newDiscountStrategy != null ? newDiscountStrategy : new NoDiscount();
+        this.discountStrategy = newDiscountStrategy != null ? newDiscountStrategy : NO_DISCOUNT;
         recalcTotals();
     }
 
@@ -180,6 +239,7 @@ public class Sale {
         if (saleId <= 0) {
             throw new IllegalArgumentException("Sale ID must be greater than 0");
         }
+        IdAllocator.SALES.observe(saleId);
         this.saleId = saleId; 
     }
 }
@@ -1,19 +1,19 @@
 package sales;
 import product.*;
 import managers.*;
+import util.Money;
 
 public class SaleItem {
     private Product product;
     private int quantity;
-    private double itemSubtotal;
-    private double itemDiscount;
-    private double saleTotalPrice;
+    private long itemSubtotalCents;
+    private long itemDiscountCents;
+    private long saleTotalPriceCents;
 
     public SaleItem(int productId, int quantity) {
         if(productId <= 0) throw new IllegalArgumentException("Product ID must be greater than 0");
         if(quantity <= 0) throw new IllegalArgumentException("Quantity must be greater than 0");
-        InventoryManager inventoryManager = new InventoryManager();
-        Product product = inventoryManager.findProductById(productId);
+        Product product = DataStore.getInstance().findProductById(productId);
         if(product == null) throw new IllegalArgumentException("Product not found");
         if(product.getStockQuantity() < quantity) throw new IllegalArgumentException("Product quantity is not enough");
 
@@ -23,27 +23,39 @@ public class SaleItem {
     }
     
     public SaleItem(Product product, int quantity) {
+        this(product, quantity, true);
+    }
+
+    private SaleItem(Product product, int quantity, boolean checkStock) {
         if(product == null) throw new IllegalArgumentException("Product cannot be null");
         if(quantity <= 0) throw new IllegalArgumentException("Quantity must be greater than 0");
-        if(product.getStockQuantity() < quantity) throw new IllegalArgumentException("Product quantity is not enough");
+        if(checkStock && product.getStockQuantity() < quantity) throw new IllegalArgumentException("Product quantity is not enough");
 
         this.product = product;
         this.quantity = quantity;
         recalculateTotals();
     }
 
+    public static SaleItem restore(Product product, int quantity) {
+        return new SaleItem(product, quantity, false);
+    }
+
+    static long lineTotalCents(Product product, int quantity) {
+        return Money.times(product.getUnitPriceCents(), quantity) - product.getLineDiscountCents(quantity);
+    }
+
     private void recalculateTotals() {
-        itemSubtotal = product.getUnitPrice() * quantity;
-        itemDiscount = 0;
-        saleTotalPrice = itemSubtotal - itemDiscount;
+        itemSubtotalCents = Money.times(product.getUnitPriceCents(), quantity);
+        itemDiscountCents = product.getLineDiscountCents(quantity);
+        saleTotalPriceCents = itemSubtotalCents - itemDiscountCents;
     }
 
 
     public Product getProduct() { return product; }
     public int getQuantity() { return quantity; }
-    public double getItemSubtotal() { return itemSubtotal; }
-    public double getItemDiscount() { return itemDiscount; }
-    public double getSaleTotalPrice() { return saleTotalPrice; }
+    public long getItemSubtotalCents() { return itemSubtotalCents; }
+    public long getItemDiscountCents() { return itemDiscountCents; }
+    public long getSaleTotalPriceCents() { return saleTotalPriceCents; }
 
     public void setProduct(Product newProduct) {
         if(newProduct == null) throw new IllegalArgumentException("Product cannot be null");
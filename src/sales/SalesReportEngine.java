@@ -0,0 +1,87 @@
+package sales;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import enums.Category;
+import product.Product;
+
+public final class SalesReportEngine {
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private SalesReportEngine() {}
+
+    private static class Totals {
+        private int saleCount;
+        private long revenueCents;
+        private final long[] revenuePerCategoryCents = new long[CATEGORIES.length];
+        private final boolean[] hasCategory = new boolean[CATEGORIES.length];
+
+        private void add(Sale sale) {
+            saleCount++;
+            revenueCents += sale.getTotalCents();
+            for(int line = 0; line < sale.getLineCount(); line++) {
+                Product p = sale.getLineProduct(line);
+                if(p == null) continue;
+                int category = p.getCategory().ordinal();
+                revenuePerCategoryCents[category] += sale.getLineTotalCents(line);
+                hasCategory[category] = true;
+            }
+        }
+
+        private Totals merge(Totals other) {
+            saleCount += other.saleCount;
+            revenueCents += other.revenueCents;
+            for(int i = 0; i < CATEGORIES.length; i++) {
+                revenuePerCategoryCents[i] += other.revenuePerCategoryCents[i];
+                hasCategory[i] |= other.hasCategory[i];
+            }
+            return this;
+        }
+    }
+
+    private static class SummarizeTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Sale> sales;
+        private final int from;
+        private final int to;
+
+        private SummarizeTask(List<Sale> sales, int from, int to) {
+            this.sales = sales;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if(to - from <= SEQUENTIAL_THRESHOLD) {
+                Totals totals = new Totals();
+                for(int i = from; i < to; i++) totals.add(sales.get(i));
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            SummarizeTask left = new SummarizeTask(sales, from, middle);
+            left.fork();
+            Totals right = new SummarizeTask(sales, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    public static SalesReporter summarize(List<Sale> sales) {
+        return summarize(sales, ForkJoinPool.commonPool());
+    }
+
+    public static SalesReporter summarize(List<Sale> sales, ForkJoinPool pool) {
+        Totals totals = pool.invoke(new SummarizeTask(sales, 0, sales.size()));
+        Map<Category, Long> revenuePerCategoryCents = new EnumMap<>(Category.class);
+        for(int i = 0; i < CATEGORIES.length; i++) {
+            if(totals.hasCategory[i]) revenuePerCategoryCents.put(CATEGORIES[i], totals.revenuePerCategoryCents[i]);
+        }
+        return new SalesReporter(totals.saleCount, totals.revenueCents, revenuePerCategoryCents);
+    }
+}
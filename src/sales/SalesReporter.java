@@ -2,23 +2,24 @@ package sales;
 
 import java.util.Map;
 import enums.*;
+import util.Money;
 
 public class SalesReporter {
     private int totalSalesCount;
-    private double totalRevenue;
-    private Map<Category, Double> revenuePerCategory;
+    private long totalRevenueCents;
+    private Map<Category, Long> revenuePerCategoryCents;
 
-    public SalesReporter(int totalSalesCount, double totalRevenue, Map<Category, Double> revenuePerCategory) {
+    public SalesReporter(int totalSalesCount, long totalRevenueCents, Map<Category, Long> revenuePerCategoryCents) {
         this.totalSalesCount = totalSalesCount;
-        this.totalRevenue = totalRevenue;
-        this.revenuePerCategory = revenuePerCategory;
+        this.totalRevenueCents = totalRevenueCents;
+        this.revenuePerCategoryCents = revenuePerCategoryCents;
     }
 
     public Category findBestSellingCategory() {
         Category bestCategory = null;
-        double maxRevenue = -1;
+        long maxRevenue = -1;
 
-        for (Map.Entry<Category, Double> entry : revenuePerCategory.entrySet()) {
+        for (Map.Entry<Category, Long> entry : revenuePerCategoryCents.entrySet()) {
             if (entry.getValue() > maxRevenue) {
                 maxRevenue = entry.getValue();
                 bestCategory = entry.getKey();
@@ -29,10 +30,10 @@ public class SalesReporter {
     }
 
     public int getTotalSalesCount() { return totalSalesCount; }
-    public double getTotalRevenue() { return totalRevenue; }
-    public Map<Category, Double> getRevenuePerCategory() { return revenuePerCategory; }
-    public double getAverageSalesValue() {
+    public long getTotalRevenueCents() { return totalRevenueCents; }
+    public Map<Category, Long> getRevenuePerCategoryCents() { return revenuePerCategoryCents; }
+    public long getAverageSalesCents() {
         if (totalSalesCount == 0) return 0;
-        return totalRevenue / totalSalesCount;
+        return Money.fraction(totalRevenueCents, 1, totalSalesCount);
     }
-}
+}
\ No newline at end of file
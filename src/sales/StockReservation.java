@@ -0,0 +1,46 @@
+package sales;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import product.Product;
+
+public final class StockReservation {
+    private final List<Product> products;
+    private final List<Integer> quantities;
+
+    private StockReservation(List<Product> products, List<Integer> quantities) {
+        this.products = products;
+        this.quantities = quantities;
+    }
+
+    public static StockReservation reserve(List<SaleItem> items) {
+        List<SaleItem> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(i -> i.getProduct().getProductId()));
+
+        List<Product> products = new ArrayList<>(sorted.size());
+        List<Integer> quantities = new ArrayList<>(sorted.size());
+        for(SaleItem item : sorted) {
+            int last = products.size() - 1;
+            if(last >= 0 && products.get(last) == item.getProduct()) {
+                quantities.set(last, quantities.get(last) + item.getQuantity());
+            } else {
+                products.add(item.getProduct());
+                quantities.add(item.getQuantity());
+            }
+        }
+
+        for(int i = 0; i < products.size(); i++) {
+            if(!products.get(i).decreaseStock(quantities.get(i))) {
+                for(int j = i - 1; j >= 0; j--) products.get(j).increaseStock(quantities.get(j));
+                return null;
+            }
+        }
+        return new StockReservation(products, quantities);
+    }
+
+    public void release() {
+        for(int i = products.size() - 1; i >= 0; i--) products.get(i).increaseStock(quantities.get(i));
+    }
+}
@@ -1,11 +1,13 @@
 package ui;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.jline.reader.LineReader;
 import org.jline.reader.LineReaderBuilder;
@@ -21,12 +23,15 @@ import offers.*;
 import users.*;
 import product.*;
 import sales.*;
+import util.Money;
 
 public class ConsoleUI {
+    private static final int SEARCH_RESULT_LIMIT = 20;
     private final UsersManager usersManager = new UsersManager();
     private final InventoryManager inventoryManager = new InventoryManager();
     private Terminal terminal;
     private LineReader lineReader;
+    private String sessionToken;
 
     public ConsoleUI() {
         try {
@@ -35,6 +40,11 @@ public class ConsoleUI {
         } catch(Exception e) {
             e.printStackTrace();
         }
+        inventoryManager.addLowStockListener((product, isLowStock) -> {
+            if(isLowStock && terminal != null) {
+                displayErrorMessage("Low stock alert :: " + product.getName() + " has " + product.getStockQuantity() + " left (threshold " + product.getLowStockQuantityThreshold() + ")");
+            }
+        });
     }
 
     public void start(String errorMessage) {
@@ -54,10 +64,12 @@ public class ConsoleUI {
         }
 
         String password = lineReader.readLine("Enter your Password :: ", '*'); 
-        if(!user.verifyPassword(password)) {
+        String token = usersManager.login(username, password);
+        if(token == null) {
             start("Invalid password");
             return;
         }
+        sessionToken = token;
 
         switch(user.getUserType()) {
             case ADMIN:
@@ -100,7 +112,7 @@ public class ConsoleUI {
             () -> this.deleteProduct(null),
             () -> this.setProductDiscount(null),
             null,
-            () -> this.start(null),
+            this::logout,
             this::exit
         };
 
@@ -132,7 +144,7 @@ public class ConsoleUI {
             null,
             null,
             null,
-            () -> this.start(null),
+            this::logout,
             () -> this.exit()
         };
 
@@ -194,7 +206,7 @@ public class ConsoleUI {
             () -> this.viewProducts(),
             () -> this.setProductDiscount(null),
             null,
-            () -> this.start(null),
+            this::logout,
             this::exit
         };
 
@@ -206,10 +218,13 @@ public class ConsoleUI {
             "View Sales",
             "View Sale Details By ID",
             "New Sale",
+            "Import Sales",
             "────",
             "Sales Summary",
+            "Sales By Date Range",
             "View Top Selling Products",
             "View Least Selling Products",
+            "View Top Products by Revenue",
             "────",
             "Logout",
             "Exit" 
@@ -219,12 +234,15 @@ public class ConsoleUI {
             () -> this.viewSales(),
             () -> this.viewSaleDetailsById(null),
             () -> this.newSale(null),
+            () -> this.importSales(null),
             null,
             () -> this.viewSalesSummary(),
-            () -> this.viewLeastOrTopSellingProducts(10, true),
-            () -> this.viewLeastOrTopSellingProducts(10, false),
+            () -> this.viewSalesByDateRange(null),
+            () -> this.viewLeastOrTopSellingProducts(10, true, SalesMetric.UNITS_SOLD),
+            () -> this.viewLeastOrTopSellingProducts(10, false, SalesMetric.UNITS_SOLD),
+            () -> this.viewLeastOrTopSellingProducts(10, true, SalesMetric.REVENUE),
             null,
-            () -> this.start(null),
+            this::logout,
             this::exit
         };
 
@@ -234,10 +252,17 @@ public class ConsoleUI {
     public void displayProductsMenu() {}
     public void displayReportsMenu() {}
     
+    public void logout() {
+        usersManager.logout(sessionToken);
+        sessionToken = null;
+        start(null);
+    }
+
     public void exit() {
         try {
             terminal.writer().println("\nGoodbye!");
             terminal.writer().flush();
+            DataStore.getInstance().flush();
             terminal.close();
         } catch(Exception e){
         } finally {
@@ -350,6 +375,14 @@ public class ConsoleUI {
         }
     }
 
+    private boolean isMoney(String str) {
+        try {
+            return Money.parse(str) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     private void viewUsers() {
         clear();
         printTitle();
@@ -361,11 +394,9 @@ public class ConsoleUI {
     }
     
     private void viewProducts() {
-        clear();
-        printTitle();
-        terminal.writer().printf("%4s %25s %8s %20s %10s %12s %10s %20s\n\n", "ID", "Name", "Price", "Discount", "Stock Qty", "Category", "Low Stock?", "Expiry/Warranty");
-        for(Product p : inventoryManager.getProducts()) {
-            terminal.writer().printf("%4d %25s %8s %20s %10s %12s %10s %20s\n",
+        browse(inventoryManager.browseProducts(),
+            () -> terminal.writer().printf("%4s %25s %8s %20s %10s %12s %10s %20s\n\n", "ID", "Name", "Price", "Discount", "Stock Qty", "Category", "Low Stock?", "Expiry/Warranty"),
+            p -> terminal.writer().printf("%4d %25s %8s %20s %10s %12s %10s %20s\n",
                 p.getProductId(),
                 p.getName(),
                 p.getPriceDisplay(),
@@ -374,10 +405,7 @@ public class ConsoleUI {
                 p.getCategory(),
                 p.getLowStockDisplay(),
                 p.getExpiryOrWarrantyDisplay()
-            );
-        }
-
-        waitForEnterKey();
+            ));
     }
 
     private void viewNearExpiryProducts() {
@@ -436,11 +464,9 @@ public class ConsoleUI {
     }
     
     private void viewProductsByCategory(Category category) {
-        clear();
-        printTitle();
-        terminal.writer().printf("%4s %25s %8s %10s %12s %10s %20s\n\n", "ID", "Name", "Price", "Stock Qty", "Category", "Low Stock?", "Expiry/Warranty");
-        for(Product p : inventoryManager.listProductsByCategory(category)) {
-            terminal.writer().printf("%4d %25s %8s %10s %12s %10s %20s\n",
+        browse(inventoryManager.browseProductsByCategory(category),
+            () -> terminal.writer().printf("%4s %25s %8s %10s %12s %10s %20s\n\n", "ID", "Name", "Price", "Stock Qty", "Category", "Low Stock?", "Expiry/Warranty"),
+            p -> terminal.writer().printf("%4d %25s %8s %10s %12s %10s %20s\n",
                 p.getProductId(),
                 p.getName(),
                 p.getPriceDisplay(),
@@ -448,39 +474,55 @@ public class ConsoleUI {
                 p.getCategory(),
                 p.getLowStockDisplay(),
                 p.getExpiryOrWarrantyDisplay()
-            );
-        }
-        waitForEnterKey();
+            ));
     }
 
     private void viewSales() {
-        clear();
-        printTitle();
-        terminal.writer().printf("%10s %15s %15s %15s %15s\n\n", "SaleID", "Date", "Subtotal", "Discount", "Total");
-        for(Sale s : FileManager.loadSales()) {
-            terminal.writer().printf("%10d %15s %15.2f$ %15.2f$ %15.2f$\n",
+        browse(inventoryManager.browseSales(),
+            () -> terminal.writer().printf("%10s %15s %15s %15s %15s\n\n", "SaleID", "Date", "Subtotal", "Discount", "Total"),
+            s -> terminal.writer().printf("%10d %15s %15s$ %15s$ %15s$\n",
                 s.getSaleId(),
                 s.getSaleDate(),
-                s.getSubTotal(),
-                s.getDiscountAmount(),
-                s.getTotal()
-            );
+                Money.format(s.getSubTotalCents()),
+                Money.format(s.getDiscountCents()),
+                Money.format(s.getTotalCents())
+            ));
+    }
+
+    private <T> void browse(Cursor<T> cursor, Runnable printHeader, Consumer<T> printRow) {
+        List<T> page = cursor.nextPage();
+        while(true) {
+            clear();
+            printTitle();
+            printHeader.run();
+            for(T record : page) printRow.accept(record);
+            terminal.writer().printf("%nPage %d%s%s%n", cursor.getPageNumber(),
+                cursor.hasPreviousPage() ? "  ( 'p' for previous page )" : "",
+                cursor.hasNextPage() ? "  ( 'n' for next page )" : "");
+            terminal.writer().println("To go back to the main menu, press ⏎ Enter");
+            terminal.writer().flush();
+            if(lineReader == null) return;
+
+            String choice = lineReader.readLine().trim();
+            if(choice.isEmpty()) return;
+            if(choice.equalsIgnoreCase("n") && cursor.hasNextPage()) page = cursor.nextPage();
+            else if(choice.equalsIgnoreCase("p") && cursor.hasPreviousPage()) page = cursor.previousPage();
         }
-        waitForEnterKey();
     }
 
-    private void viewLeastOrTopSellingProducts(int limit, boolean isTop) {
+    private void viewLeastOrTopSellingProducts(int limit, boolean isTop, SalesMetric metric) {
         clear();
         printTitle();
         int ctr=0;
-        terminal.writer().printf("%4s %4s %25s %12s %10s %10s %20s %12s %10s %18s\n\n", "No.", "ID", "Name", "Units Sold", "Price", "Stock Qty", "Discount", "Category", "Low Stock?", "Expiry/Warranty");
-        for(Product p : (isTop ? inventoryManager.listTopSellingProducts(limit) : inventoryManager.listLeastSellingProducts(limit))) {
+        terminal.writer().printf("%4s %4s %25s %12s %12s %10s %10s %20s %12s %10s %18s\n\n", "No.", "ID", "Name", "Units Sold", "Revenue", "Price", "Stock Qty", "Discount", "Category", "Low Stock?", "Expiry/Warranty");
+        for(Product p : (isTop ? inventoryManager.listTopSellingProducts(limit, metric, null) : inventoryManager.listLeastSellingProducts(limit, metric, null))) {
             ctr++;
-            terminal.writer().printf("%4s %4d %25s %12d %10s %10s %20s %12s %10s %18s\n",
+            terminal.writer().printf("%4s %4d %25s %12d %11s$ %10s %10s %20s %12s %10s %18s\n",
                 ctr == 1 ? "1st" : ctr == 2 ? "2nd" : ctr == 3 ? "3rd" : ctr + "th",
                 p.getProductId(),
                 p.getName(),
                 inventoryManager.getProductSalesCount(p.getProductId()),
+                Money.format(inventoryManager.getProductRevenueCents(p.getProductId())),
                 p.getPriceDisplay(),
                 p.getStockQuantity(),
                 p.getDiscountDisplay(),
@@ -526,22 +568,25 @@ public class ConsoleUI {
         if(errorMessage != null) displayErrorMessage(errorMessage);
 
         String productName = lineReader.readLine("Enter the product name :: ");
-        Product product = inventoryManager.findProductByName(productName);
-        if(product == null) {
+        List<Product> matches = inventoryManager.searchProductsByName(productName, SEARCH_RESULT_LIMIT, false);
+        if(matches.isEmpty()) matches = inventoryManager.searchProductsByName(productName, SEARCH_RESULT_LIMIT, true);
+        if(matches.isEmpty()) {
             searchProductsByName("Invalid product name");
             return;
         }
 
         terminal.writer().printf("%5s %20s %10s %15s %15s %10s %20s\n\n", "ID", "Name", "Price", "Stock Qty", "Category", "Low Stock?", "Expiry/Warranty");
-        terminal.writer().printf("%5d %20s %10s %15s %15s %10s %20s\n",
-            product.getProductId(),
-            product.getName(),
-            product.getPriceDisplay(),
-            product.getStockQuantity(),
-            product.getCategory(),
-            product.getLowStockDisplay(),
-            product.getExpiryOrWarrantyDisplay()
-        );
+        for(Product product : matches) {
+            terminal.writer().printf("%5d %20s %10s %15s %15s %10s %20s\n",
+                product.getProductId(),
+                product.getName(),
+                product.getPriceDisplay(),
+                product.getStockQuantity(),
+                product.getCategory(),
+                product.getLowStockDisplay(),
+                product.getExpiryOrWarrantyDisplay()
+            );
+        }
 
         waitForEnterKey();
     }
@@ -552,7 +597,7 @@ public class ConsoleUI {
         if(errorMessage != null) displayErrorMessage(errorMessage);
 
         String saleId = lineReader.readLine("Enter the sale ID :: ");
-        Sale sale = FileManager.findSaleById(Integer.parseInt(saleId));
+        Sale sale = inventoryManager.findSaleById(Integer.parseInt(saleId));
         if(sale == null) {
             viewSaleDetailsById("Invalid sale ID");
             return;
@@ -636,7 +681,7 @@ public class ConsoleUI {
         }
 
         String unitPrice = lineReader.readLine("Enter the product unit price :: ");
-        if(!isDouble(unitPrice) && !isInteger(unitPrice)) { addProduct("Invalid product unit price"); return; }
+        if(!isMoney(unitPrice)) { addProduct("Invalid product unit price"); return; }
 
         String stockQuantity = lineReader.readLine("Enter the product stock quantity :: ");
         if(!isInteger(stockQuantity)) { addProduct("Invalid product stock quantity"); return; }
@@ -650,7 +695,7 @@ public class ConsoleUI {
             String expiryDate = lineReader.readLine("Enter the product expiry date (YYYY-MM-DD) :: ");
             try {
                 LocalDate parsedDate = LocalDate.parse(expiryDate);
-                inventoryManager.addProduct(new PerishableProduct(name, category, Double.parseDouble(unitPrice), Integer.parseInt(stockQuantity), Integer.parseInt(lowStockQuantityThreshold), parsedDate));
+                inventoryManager.addProduct(new PerishableProduct(name, category, Money.parse(unitPrice), Integer.parseInt(stockQuantity), Integer.parseInt(lowStockQuantityThreshold), parsedDate));
             } catch (DateTimeParseException e) {
                 addProduct("Invalid expiry date format. Use YYYY-MM-DD (e.g., 2025-12-31)");
                 return;
@@ -659,7 +704,7 @@ public class ConsoleUI {
         else if(productType.equalsIgnoreCase("Non-Perishable")) {
             String warrantyMonths = lineReader.readLine("Enter the product warranty months :: ");
             if(!isInteger(warrantyMonths)) { addProduct("Invalid product warranty months"); return; }
-            inventoryManager.addProduct(new NonPerishableProduct(name, category, Double.parseDouble(unitPrice), Integer.parseInt(stockQuantity), Integer.parseInt(lowStockQuantityThreshold), Integer.parseInt(warrantyMonths)));
+            inventoryManager.addProduct(new NonPerishableProduct(name, category, Money.parse(unitPrice), Integer.parseInt(stockQuantity), Integer.parseInt(lowStockQuantityThreshold), Integer.parseInt(warrantyMonths)));
         } else { addProduct("Invalid product type. Must be Perishable or Non-Perishable"); return; }
 
         terminal.writer().println("Product added successfully");
@@ -703,7 +748,7 @@ public class ConsoleUI {
         
         if(discountType.equalsIgnoreCase("None")) {
             p.setDiscountStrategy(new offers.NoDiscount());
-            inventoryManager.saveProducts();
+            inventoryManager.saveProduct(p);
             terminal.writer().println("Discount removed successfully");
         } else if(discountType.equalsIgnoreCase("BuyXGetYFree")) {
             String buyQty = lineReader.readLine("Enter buy quantity (X) :: ");
@@ -713,7 +758,7 @@ public class ConsoleUI {
             if(!isInteger(freeQty) || Integer.parseInt(freeQty) <= 0) { setProductDiscount("Invalid free quantity"); return; }
             
             p.setDiscountStrategy(new offers.BuyXGetYFree(Integer.parseInt(buyQty), Integer.parseInt(freeQty)));
-            inventoryManager.saveProducts();
+            inventoryManager.saveProduct(p);
             terminal.writer().println("Discount set successfully: Buy " + buyQty + " Get " + freeQty + " Free");
         } else {
             setProductDiscount("Invalid discount type. Must be None or BuyXGetYFree");
@@ -752,10 +797,9 @@ public class ConsoleUI {
                     }
 
                     Sale sale = new Sale(items, strat);
-                    List<Sale> sales = FileManager.loadSales();
-
-                    sales.add(sale);
-                    FileManager.saveSales(sales);
+                    CheckoutStatus status = sale.checkout();
+                    if(status == CheckoutStatus.OUT_OF_STOCK) { newSale("Product quantity is not enough"); return; }
+                    if(status == CheckoutStatus.NOT_SAVED) { newSale("Sale could not be saved"); return; }
                     sale.generateReceipt();
 
                     waitForEnterKey();
@@ -766,7 +810,7 @@ public class ConsoleUI {
                 if(p == null) { newSale("Product not found"); return; }
 
                 terminal.writer().println(" - " + p.getName() + " (ID: " + p.getProductId() + ")");
-                terminal.writer().println(" - Price: $" + p.getUnitPrice());
+                terminal.writer().println(" - Price: $" + p.getPriceDisplay());
                 String quantity = lineReader.readLine("Enter the quantity :: ");
                 if(!isInteger(quantity) || Integer.parseInt(quantity) <= 0) { newSale("Invalid quantity"); return; }
 
@@ -776,41 +820,92 @@ public class ConsoleUI {
         }
     }
 
-    private void viewSalesSummary() {
+    private void importSales(String errorMessage) {
         clear();
         printTitle();
 
-        List<Sale> sales = FileManager.loadSales();
-        
-        if(sales.isEmpty()) {
-            terminal.writer().println("No sales data available.");
-            waitForEnterKey();
+        if(errorMessage != null) displayErrorMessage(errorMessage);
+        String path = lineReader.readLine("Enter the path of the sales file to import ( or 'back' ) :: ").trim();
+        if(path.equalsIgnoreCase("back")) return;
+        if(path.isEmpty() || !Files.isRegularFile(Paths.get(path))) { importSales("File not found"); return; }
+
+        ImportReport report = inventoryManager.importSales(Paths.get(path));
+        terminal.writer().printf("Rows Read    :: %d%n", report.getRowsRead());
+        terminal.writer().printf("Imported     :: %d%n", report.getImported());
+        terminal.writer().printf("Rejected     :: %d%n", report.getRejected());
+        terminal.writer().printf("Elapsed      :: %.2f s (%.0f rows/s)%n", report.getElapsedNanos() / 1e9, report.getRowsPerSecond());
+        if(!report.isCommitted()) displayErrorMessage("The imported sales could not be saved");
+
+        List<String> rejections = report.getRejections();
+        for(int i = 0; i < rejections.size() && i < SEARCH_RESULT_LIMIT; i++) terminal.writer().println("   ├─ " + rejections.get(i));
+        if(rejections.size() > SEARCH_RESULT_LIMIT) terminal.writer().println("   └─ ... " + (rejections.size() - SEARCH_RESULT_LIMIT) + " more");
+        waitForEnterKey();
+    }
+
+    private void viewSalesByDateRange(String errorMessage) {
+        clear();
+        printTitle();
+
+        if(errorMessage != null) displayErrorMessage(errorMessage);
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(lineReader.readLine("Enter the start date (YYYY-MM-DD) :: ").trim());
+            to = LocalDate.parse(lineReader.readLine("Enter the end date (YYYY-MM-DD) :: ").trim());
+        } catch (DateTimeParseException e) {
+            viewSalesByDateRange("Invalid date format. Use YYYY-MM-DD (e.g., 2025-12-31)");
             return;
         }
+        if(from.isAfter(to)) { viewSalesByDateRange("The start date must not be after the end date"); return; }
 
-        int totalSalesCount = sales.size();
-        double totalRevenue = 0;
-        Map<Category, Double> revenuePerCategory = new HashMap<>();
+        String periodInput = lineReader.readLine("Group by ( Day/Week/Month ) :: ").trim();
+        RollupPeriod period = null;
+        for(RollupPeriod p : RollupPeriod.values()) {
+            if(p.name().equalsIgnoreCase(periodInput)) period = p;
+        }
+        if(period == null) { viewSalesByDateRange("Invalid grouping"); return; }
+
+        SalesSummary summary = inventoryManager.summarizeSales(from, to);
+        terminal.writer().printf("%nSales from %s to %s%n", from, to);
+        terminal.writer().printf("Total Sales: %d\n", summary.getSaleCount());
+        terminal.writer().printf("Total Revenue: $%s\n", Money.format(summary.getRevenueCents()));
+        terminal.writer().printf("Total Discount: $%s\n", Money.format(summary.getDiscountCents()));
+        terminal.writer().printf("Average Sale Value: $%s\n", Money.format(summary.getAverageSaleCents()));
+
+        terminal.writer().println("\n ─ By Category ");
+        terminal.writer().printf("%12s %12s %12s\n", "Category", "Units", "Revenue");
+        for(Category c : Category.values()) {
+            terminal.writer().printf("%12s %12d %11s$\n", c, summary.getUnits(c), Money.format(summary.getRevenueCents(c)));
+        }
 
-        for(Sale s : sales) {
-            totalRevenue += s.getTotal();
-            for(SaleItem item : s.getSaleItems()) {
-                if(item.getProduct() != null) {
-                    Category cat = item.getProduct().getCategory();
-                    revenuePerCategory.put(cat, revenuePerCategory.getOrDefault(cat, 0.0) + item.getSaleTotalPrice());
-                }
-            }
+        terminal.writer().println("\n ─ By " + period.name().charAt(0) + period.name().substring(1).toLowerCase() + " ");
+        terminal.writer().printf("%12s %12s %8s %12s %12s\n", "From", "To", "Sales", "Units", "Revenue");
+        for(SalesSummary bucket : inventoryManager.listSalesRollups(period, from, to)) {
+            terminal.writer().printf("%12s %12s %8d %12d %11s$\n", bucket.getFrom(), bucket.getTo(), bucket.getSaleCount(), bucket.getUnits(), Money.format(bucket.getRevenueCents()));
         }
+        terminal.writer().flush();
+        waitForEnterKey();
+    }
 
-        SalesReporter reporter = new SalesReporter(totalSalesCount, totalRevenue, revenuePerCategory);
+    private void viewSalesSummary() {
+        clear();
+        printTitle();
+
+        SalesReporter reporter = inventoryManager.summarizeSales();
+
+        if(reporter.getTotalSalesCount() == 0) {
+            terminal.writer().println("No sales data available.");
+            waitForEnterKey();
+            return;
+        }
 
         terminal.writer().printf("Total Sales: %d\n", reporter.getTotalSalesCount());
-        terminal.writer().printf("Total Revenue: $%.2f\n", reporter.getTotalRevenue());
-        terminal.writer().printf("Average Sale Value: $%.2f\n", reporter.getAverageSalesValue());
+        terminal.writer().printf("Total Revenue: $%s\n", Money.format(reporter.getTotalRevenueCents()));
+        terminal.writer().printf("Average Sale Value: $%s\n", Money.format(reporter.getAverageSalesCents()));
         
         terminal.writer().println("\n ─ Revenue by Category ");
-        for(Map.Entry<Category, Double> entry : reporter.getRevenuePerCategory().entrySet()) {
-            terminal.writer().printf("%s: $%.2f\n", entry.getKey(), entry.getValue());
+        for(Map.Entry<Category, Long> entry : reporter.getRevenuePerCategoryCents().entrySet()) {
+            terminal.writer().printf("%s: $%s\n", entry.getKey(), Money.format(entry.getValue()));
         }
 
         Category bestCategory = reporter.findBestSellingCategory();
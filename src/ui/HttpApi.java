@@ -0,0 +1,393 @@
+package ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import enums.Category;
+import enums.CheckoutStatus;
+import enums.UserType;
+import managers.Config;
+import managers.Cursor;
+import managers.DataStore;
+import managers.InventoryManager;
+import managers.SalesSummary;
+import managers.UsersManager;
+import offers.DiscountStrategy;
+import offers.NoDiscount;
+import offers.PercentageDiscount;
+import product.NonPerishableProduct;
+import product.PerishableProduct;
+import product.Product;
+import sales.Sale;
+import sales.SaleItem;
+import users.User;
+import util.JsonWriter;
+
+public class HttpApi {
+    private static final int MAX_BODY_BYTES = 1 << 16;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 500;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final InventoryManager inventoryManager;
+    private final UsersManager usersManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean isUsingVirtualThreads;
+
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public HttpApi(InventoryManager inventoryManager, UsersManager usersManager, int port) throws IOException {
+        this.inventoryManager = inventoryManager;
+        this.usersManager = usersManager;
+        if(System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress(port), Config.getInt("httpBacklog", 256));
+
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        this.isUsingVirtualThreads = virtualThreads != null;
+        this.executor = virtualThreads != null ? virtualThreads : Executors.newFixedThreadPool(Math.max(1, Config.getInt("httpThreads", 64)));
+        server.setExecutor(executor);
+        server.createContext("/", this::serve);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        DataStore.getInstance().flush();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+    public boolean isUsingVirtualThreads() { return isUsingVirtualThreads; }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        JsonWriter json = new JsonWriter();
+        int status;
+        try {
+            status = route(exchange, json);
+        } catch (HttpError e) {
+            status = e.status;
+            json = error(e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            status = 400;
+            json = error(e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            status = 500;
+            json = error("Internal server error");
+        }
+        respond(exchange, status, json);
+    }
+
+    private int route(HttpExchange exchange, JsonWriter json) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = segments(exchange.getRequestURI().getPath());
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+
+        if(path.length == 1 && path[0].equals("login")) {
+            requireMethod(method, "POST");
+            return login(readForm(exchange), json);
+        }
+
+        String token = bearerToken(exchange);
+        User user = usersManager.resumeSession(token);
+        if(user == null) throw new HttpError(401, "Missing or expired session");
+
+        if(path.length == 1 && path[0].equals("logout")) {
+            requireMethod(method, "POST");
+            usersManager.logout(token);
+            return 204;
+        }
+        if(path.length >= 1 && path[0].equals("products")) {
+            requireMethod(method, "GET");
+            if(path.length == 1) return searchProducts(query, json);
+            if(path.length == 2) {
+                switch(path[1]) {
+                    case "low-stock":
+                        requireRole(user, UserType.ADMIN, UserType.INVENTORY);
+                        return writeProducts(json, inventoryManager.listLowStockProducts());
+                    case "expired":
+                        requireRole(user, UserType.ADMIN, UserType.INVENTORY);
+                        return writeProducts(json, inventoryManager.listExpiredProducts());
+                    case "near-expiry":
+                        requireRole(user, UserType.ADMIN, UserType.INVENTORY);
+                        return writeProducts(json, inventoryManager.listNearExpiryProducts());
+                    default:
+                        Product p = inventoryManager.findProductById(parseId(path[1]));
+                        if(p == null) throw new HttpError(404, "Product not found");
+                        writeProduct(json, p);
+                        return 200;
+                }
+            }
+        }
+        if(path.length >= 1 && path[0].equals("sales")) {
+            requireRole(user, UserType.ADMIN, UserType.SALES);
+            if(path.length == 1) {
+                requireMethod(method, "POST");
+                return createSale(readForm(exchange), json);
+            }
+            if(path.length == 2) {
+                requireMethod(method, "GET");
+                if(path[1].equals("summary")) return summarizeSales(query, json);
+                Sale sale = inventoryManager.findSaleById(parseId(path[1]));
+                if(sale == null) throw new HttpError(404, "Sale not found");
+                writeSale(json, sale);
+                return 200;
+            }
+        }
+        throw new HttpError(404, "No such endpoint");
+    }
+
+    private int login(Map<String, String> form, JsonWriter json) {
+        String token = usersManager.login(form.get("username"), form.get("password"));
+        if(token == null) throw new HttpError(401, "Invalid username or password");
+        User user = usersManager.findUserByUsername(form.get("username"));
+        json.beginObject()
+            .name("token").value(token)
+            .name("userId").value(user.getUserId())
+            .name("role").value(user.getUserType().name())
+            .endObject();
+        return 200;
+    }
+
+    private int searchProducts(Map<String, String> query, JsonWriter json) {
+        int limit = Math.min(MAX_LIMIT, parseInt(query, "limit", DEFAULT_LIMIT));
+        if(limit <= 0) throw new IllegalArgumentException("Limit must be greater than 0");
+        String name = query.get("q");
+        if(name != null) {
+            return writeProducts(json, inventoryManager.searchProductsByName(name, limit, Boolean.parseBoolean(query.get("fuzzy"))));
+        }
+
+        String category = query.get("category");
+        Cursor<Product> cursor = inventoryManager.browseProducts(category == null ? null : parseCategory(category), limit);
+        return writeProducts(json, cursor.pageAt(Math.max(0, parseInt(query, "offset", 0))));
+    }
+
+    private int createSale(Map<String, String> form, JsonWriter json) {
+        String lines = form.get("items");
+        if(lines == null || lines.trim().isEmpty()) throw new IllegalArgumentException("Items are required as productId:quantity pairs");
+
+        List<SaleItem> items = new ArrayList<>();
+        for(String line : lines.split("[;,]")) {
+            int colon = line.indexOf(':');
+            if(colon <= 0) throw new IllegalArgumentException("Invalid item: " + line.trim());
+            int productId = parseId(line.substring(0, colon));
+            int quantity = parseId(line.substring(colon + 1));
+            Product p = inventoryManager.findProductById(productId);
+            if(p == null) throw new HttpError(404, "Product " + productId + " not found");
+            if(p.getStockQuantity() < quantity) throw new HttpError(409, "Product " + productId + " quantity is not enough");
+            items.add(new SaleItem(p, quantity));
+        }
+
+        DiscountStrategy strat = new NoDiscount();
+        String percentage = form.get("discount");
+        if(percentage != null && !percentage.trim().isEmpty()) {
+            double percent = Double.parseDouble(percentage.trim());
+            if(!(percent > 0 && percent <= 100)) throw new IllegalArgumentException("Invalid discount percentage");
+            strat = new PercentageDiscount(percent);
+        }
+
+        Sale sale = new Sale(items, strat);
+        CheckoutStatus status = sale.checkout();
+        if(status == CheckoutStatus.OUT_OF_STOCK) throw new HttpError(409, "Product quantity is not enough");
+        if(status == CheckoutStatus.NOT_SAVED) throw new HttpError(500, "Sale could not be saved");
+        writeSale(json, sale);
+        return 201;
+    }
+
+    private int summarizeSales(Map<String, String> query, JsonWriter json) {
+        LocalDate to = query.containsKey("to") ? LocalDate.parse(query.get("to")) : LocalDate.now();
+        LocalDate from = query.containsKey("from") ? LocalDate.parse(query.get("from")) : to.withDayOfMonth(1);
+        if(from.isAfter(to)) throw new IllegalArgumentException("From date must not be after to date");
+
+        SalesSummary summary = inventoryManager.summarizeSales(from, to);
+        json.beginObject()
+            .name("from").value(from)
+            .name("to").value(to)
+            .name("sales").value(summary.getSaleCount())
+            .name("units").value(summary.getUnits())
+            .name("revenue").valueCents(summary.getRevenueCents())
+            .name("discount").valueCents(summary.getDiscountCents())
+            .name("averageSale").valueCents(summary.getAverageSaleCents())
+            .name("categories").beginObject();
+        for(Category c : CATEGORIES) {
+            json.name(c.name()).beginObject()
+                .name("units").value(summary.getUnits(c))
+                .name("revenue").valueCents(summary.getRevenueCents(c))
+                .endObject();
+        }
+        json.endObject().endObject();
+        return 200;
+    }
+
+    private static int writeProducts(JsonWriter json, List<Product> products) {
+        json.beginArray();
+        for(Product p : products) writeProduct(json, p);
+        json.endArray();
+        return 200;
+    }
+
+    private static void writeProduct(JsonWriter json, Product p) {
+        json.beginObject()
+            .name("id").value(p.getProductId())
+            .name("name").value(p.getName())
+            .name("category").value(p.getCategory().name())
+            .name("type").value(p.getProductType())
+            .name("price").valueCents(p.getUnitPriceCents())
+            .name("discountedPrice").valueCents(p.getDiscountedUnitPriceCents())
+            .name("stock").value(p.getStockQuantity())
+            .name("lowStockThreshold").value(p.getLowStockQuantityThreshold());
+        if(p instanceof PerishableProduct) json.name("expiryDate").value(((PerishableProduct) p).getExpiryDate());
+        else if(p instanceof NonPerishableProduct) json.name("warrantyMonths").value(((NonPerishableProduct) p).getWarrantyMonths());
+        json.endObject();
+    }
+
+    private static void writeSale(JsonWriter json, Sale sale) {
+        json.beginObject()
+            .name("id").value(sale.getSaleId())
+            .name("date").value(sale.getSaleDate())
+            .name("items").beginArray();
+        for(int line = 0; line < sale.getLineCount(); line++) {
+            Product p = sale.getLineProduct(line);
+            json.beginObject()
+                .name("productId").value(sale.getLineProductId(line))
+                .name("name").value(p == null ? null : p.getName())
+                .name("quantity").value(sale.getLineQuantity(line))
+                .name("total").valueCents(sale.getLineTotalCents(line))
+                .endObject();
+        }
+        json.endArray()
+            .name("subtotal").valueCents(sale.getSubTotalCents())
+            .name("discount").valueCents(sale.getDiscountCents())
+            .name("total").valueCents(sale.getTotalCents())
+            .endObject();
+    }
+
+    private static JsonWriter error(String message) {
+        return new JsonWriter().beginObject().name("error").value(message).endObject();
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        try {
+            if(status == 204) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if(!expected.equalsIgnoreCase(method)) throw new HttpError(405, "Method " + method + " is not allowed here");
+    }
+
+    private static void requireRole(User user, UserType... roles) {
+        for(UserType role : roles) if(user.getUserType() == role) return;
+        throw new HttpError(403, "Not permitted for " + user.getUserType().name() + " users");
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if(header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return header.substring(7).trim();
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if(body.length > MAX_BODY_BYTES) throw new HttpError(413, "Request body is too large");
+            return parseForm(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> form = new HashMap<>();
+        if(encoded == null || encoded.isEmpty()) return form;
+        for(String pair : encoded.split("&")) {
+            if(pair.isEmpty()) continue;
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            form.put(key, value);
+        }
+        return form;
+    }
+
+    private static int parseId(String text) {
+        try {
+            int value = Integer.parseInt(text.trim());
+            if(value <= 0) throw new IllegalArgumentException("Expected a positive number but got " + text.trim());
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number but got " + text.trim());
+        }
+    }
+
+    private static int parseInt(Map<String, String> query, String key, int defaultValue) {
+        String value = query.get(key);
+        if(value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static Category parseCategory(String name) {
+        for(Category c : CATEGORIES) if(c.name().equalsIgnoreCase(name.trim())) return c;
+        throw new IllegalArgumentException("Unknown category: " + name);
+    }
+}
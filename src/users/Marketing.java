@@ -7,8 +7,8 @@ public class Marketing extends User {
         super(name, username, password);
     }
 
-    public Marketing(int userId, String name, String username, String password) {
-        super(userId, name, username, password);
+    public Marketing(int userId, String name, String username, String passwordHash) {
+        super(userId, name, username, passwordHash);
     }
 
     @Override
@@ -1,35 +1,39 @@
 package users;
 
 import enums.*;
+import managers.IdAllocator;
 
 public abstract class User {
-    private static int idCounter = 0;
     protected int userId;
     protected String name;
     protected String username;
-    protected String password;
+    protected String passwordHash;
 
-    public User(int userId, String name, String username, String password) {
+    public User(int userId, String name, String username, String passwordHash) {
         if(userId <= 0) throw new IllegalArgumentException("User ID must be greater than 0");
         if(name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Name cannot be empty");
         if(username == null || username.trim().isEmpty()) throw new IllegalArgumentException("Username cannot be empty");
-        if(password == null || password.trim().isEmpty()) throw new IllegalArgumentException("Password cannot be empty");
+        if(passwordHash == null || passwordHash.trim().isEmpty()) throw new IllegalArgumentException("Password cannot be empty");
 
-        if (userId > idCounter) idCounter = userId;
+        IdAllocator.USERS.observe(userId);
 
         this.userId = userId;
         this.name = name;
         this.username = username;
-        this.password = password;
+        this.passwordHash = passwordHash;
     }
 
     public User(String name, String username, String password) {
-        this(++idCounter, name, username, password);
+        this(IdAllocator.USERS.nextId(), name, username, PasswordHash.hash(password));
     }
 
     public boolean verifyPassword(String inputPassword) {
         if(inputPassword == null || inputPassword.trim().isEmpty()) throw new IllegalArgumentException("Password cannot be empty");
-        return this.password.equals(inputPassword);
+        return PasswordHash.verify(inputPassword, this.passwordHash);
+    }
+
+    public boolean needsPasswordRehash() {
+        return PasswordHash.needsRehash(this.passwordHash);
     }
 
     public void userInformation() {
@@ -44,7 +48,7 @@ public abstract class User {
     public int getUserId() { return userId; }
     public String getName() { return name; }
     public String getUsername() { return username; }
-    public String getPassword() { return password; }
+    public String getPasswordHash() { return passwordHash; }
 
     public void setName(String name) {
         if(name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Name cannot be empty");
@@ -57,7 +61,6 @@ public abstract class User {
     }
 
     public void setPassword(String password) {
-        if(password == null || password.trim().isEmpty()) throw new IllegalArgumentException("Password cannot be empty");
-        this.password = password;
+        this.passwordHash = PasswordHash.hash(password);
     }
 }
@@ -0,0 +1,286 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long charsRead;
+    private boolean skipLineFeed;
+
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    public boolean nextRecord() throws IOException {
+        while(true) {
+            int c = readRecord();
+            if(c == -1 && fieldCount == 1 && fieldEnds[0] == fieldStarts[0]) return false;
+            if(fieldCount == 1 && fieldEnds[0] == fieldStarts[0]) continue;
+            return true;
+        }
+    }
+
+    private int readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        int fieldStart = 0;
+        boolean quoted = false;
+        boolean inQuotes = false;
+        int c;
+
+        while(true) {
+            c = read();
+            if(inQuotes) {
+                if(c == -1) break;
+                if(c == '"') {
+                    if(peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+                continue;
+            }
+
+            if(c == -1 || c == '\n' || c == '\r' || c == ',') {
+                endField(fieldStart, quoted);
+                if(c != ',') break;
+                fieldStart = recordLength;
+                quoted = false;
+            } else if(c == '"' && isBlank(fieldStart, recordLength)) {
+                recordLength = fieldStart;
+                quoted = true;
+                inQuotes = true;
+            } else if(!quoted) {
+                append((char) c);
+            }
+        }
+
+        if(c == '\r') skipLineFeed = true;
+        return c;
+    }
+
+    private void endField(int start, boolean quoted) {
+        int end = recordLength;
+        if(!quoted) {
+            while(start < end && record[start] <= ' ') start++;
+            while(end > start && record[end - 1] <= ' ') end--;
+        }
+        if(fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount << 1);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount << 1);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for(int i = from; i < to; i++) {
+            if(record[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if(recordLength == record.length) record = Arrays.copyOf(record, recordLength << 1);
+        record[recordLength++] = c;
+    }
+
+    private int read() throws IOException {
+        if(position == limit && !fill()) return -1;
+        char c = buffer[position++];
+        if(skipLineFeed) {
+            skipLineFeed = false;
+            if(c == '\n') return read();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if(position == limit && !fill()) return -1;
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if(n <= 0) return false;
+        position = 0;
+        limit = n;
+        charsRead += n;
+        return true;
+    }
+
+    public int getFieldCount() { return fieldCount; }
+    public long getCharsRead() { return charsRead; }
+    public char[] getRecordBuffer() { return record; }
+
+    public int getFieldStart(int field) {
+        checkField(field);
+        return fieldStarts[field];
+    }
+
+    public int getFieldEnd(int field) {
+        checkField(field);
+        return fieldEnds[field];
+    }
+
+    public boolean isEmpty(int field) {
+        return field >= fieldCount || fieldStarts[field] == fieldEnds[field];
+    }
+
+    public String getString(int field) {
+        checkField(field);
+        return new String(record, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    public int getInt(int field) {
+        checkField(field);
+        return parseInt(record, fieldStarts[field], fieldEnds[field]);
+    }
+
+    public double getDouble(int field) {
+        checkField(field);
+        return parseDouble(record, fieldStarts[field], fieldEnds[field]);
+    }
+
+    public long getCents(int field) {
+        checkField(field);
+        return Money.parse(record, fieldStarts[field], fieldEnds[field]);
+    }
+
+    public LocalDate getDate(int field) {
+        checkField(field);
+        return parseDate(record, fieldStarts[field], fieldEnds[field]);
+    }
+
+    public boolean fieldEquals(int field, String value, boolean ignoreCase) {
+        if(field >= fieldCount) return false;
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if(length != value.length()) return false;
+        for(int i = 0; i < length; i++) {
+            char a = record[start + i];
+            char b = value.charAt(i);
+            if(a == b) continue;
+            if(!ignoreCase || Character.toUpperCase(a) != Character.toUpperCase(b)) return false;
+        }
+        return true;
+    }
+
+    public boolean fieldStartsWithIgnoreCase(int field, String prefix) {
+        if(field >= fieldCount) return false;
+        int start = fieldStarts[field];
+        if(fieldEnds[field] - start < prefix.length()) return false;
+        for(int i = 0; i < prefix.length(); i++) {
+            if(Character.toLowerCase(record[start + i]) != Character.toLowerCase(prefix.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    public <E extends Enum<E>> E getEnum(int field, E[] constants) {
+        for(E constant : constants) {
+            if(fieldEquals(field, constant.name(), false)) return constant;
+        }
+        throw new IllegalArgumentException("Unknown value: " + getString(field));
+    }
+
+    private void checkField(int field) {
+        if(field < 0 || field >= fieldCount) throw new IllegalArgumentException("Missing field " + field);
+    }
+
+    public static int parseInt(char[] chars, int from, int to) {
+        while(from < to && chars[from] <= ' ') from++;
+        while(to > from && chars[to - 1] <= ' ') to--;
+        if(from >= to) throw new NumberFormatException("Empty number");
+        boolean negative = chars[from] == '-';
+        int i = (negative || chars[from] == '+') ? from + 1 : from;
+        if(i == to) throw new NumberFormatException("Invalid number: " + new String(chars, from, to - from));
+        long value = 0;
+        for(; i < to; i++) {
+            int digit = chars[i] - '0';
+            if(digit < 0 || digit > 9) throw new NumberFormatException("Invalid number: " + new String(chars, from, to - from));
+            value = value * 10 + digit;
+            if(value > (long) Integer.MAX_VALUE + 1) throw new NumberFormatException("Number out of range: " + new String(chars, from, to - from));
+        }
+        if(negative) value = -value;
+        if(value > Integer.MAX_VALUE) throw new NumberFormatException("Number out of range: " + new String(chars, from, to - from));
+        return (int) value;
+    }
+
+    public static double parseDouble(char[] chars, int from, int to) {
+        while(from < to && chars[from] <= ' ') from++;
+        while(to > from && chars[to - 1] <= ' ') to--;
+        if(from >= to) throw new NumberFormatException("Empty number");
+        boolean negative = chars[from] == '-';
+        int i = (negative || chars[from] == '+') ? from + 1 : from;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDot = false;
+        for(; i < to; i++) {
+            char c = chars[i];
+            if(c == '.' && !seenDot) {
+                seenDot = true;
+            } else if(c >= '0' && c <= '9') {
+                if(digits == 0 && c == '0') {
+                    if(seenDot) scale++;
+                    continue;
+                }
+                if(++digits > 15) return Double.parseDouble(new String(chars, from, to - from));
+                mantissa = mantissa * 10 + (c - '0');
+                if(seenDot) scale++;
+            } else {
+                return Double.parseDouble(new String(chars, from, to - from));
+            }
+        }
+        if(scale >= POWERS_OF_TEN.length) return Double.parseDouble(new String(chars, from, to - from));
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    public static LocalDate parseDate(char[] chars, int from, int to) {
+        int firstSep = -1;
+        int secondSep = -1;
+        for(int i = from; i < to; i++) {
+            if(chars[i] == '-' || chars[i] == '/') {
+                if(firstSep == -1) firstSep = i;
+                else if(secondSep == -1) secondSep = i;
+                else throw new IllegalArgumentException("Invalid date: " + new String(chars, from, to - from));
+            }
+        }
+        if(firstSep == -1 || secondSep == -1) throw new IllegalArgumentException("Invalid date: " + new String(chars, from, to - from));
+        int a = parseInt(chars, from, firstSep);
+        int b = parseInt(chars, firstSep + 1, secondSep);
+        int c = parseInt(chars, secondSep + 1, to);
+        if(chars[firstSep] == '/') return LocalDate.of(c, a, b);
+        return LocalDate.of(a, b, c);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
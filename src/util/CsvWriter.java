@@ -0,0 +1,134 @@
+package util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public class CsvWriter implements Closeable, Flushable {
+    private static final int FLUSH_THRESHOLD = 1 << 15;
+
+    private final Writer out;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private char[] chunk = new char[FLUSH_THRESHOLD + 1024];
+    private boolean firstField = true;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvWriter field(int value) {
+        beginField().append(value);
+        return this;
+    }
+
+    public CsvWriter field(long value) {
+        beginField().append(value);
+        return this;
+    }
+
+    public CsvWriter field(double value) {
+        beginField().append(value);
+        return this;
+    }
+
+    public CsvWriter fieldCents(long cents) {
+        beginField();
+        Money.append(buffer, cents);
+        return this;
+    }
+
+    public CsvWriter field(LocalDate value) {
+        beginField();
+        appendDate(value);
+        return this;
+    }
+
+    public CsvWriter field(String value) {
+        beginField();
+        if(value == null) return this;
+        if(!needsQuoting(value)) {
+            buffer.append(value);
+            return this;
+        }
+        buffer.append('"');
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '"') buffer.append('"');
+            buffer.append(c);
+        }
+        buffer.append('"');
+        return this;
+    }
+
+    public CsvWriter beginField() {
+        if(!firstField) buffer.append(',');
+        firstField = false;
+        return this;
+    }
+
+    public CsvWriter append(int value) {
+        buffer.append(value);
+        return this;
+    }
+
+    public CsvWriter append(long value) {
+        buffer.append(value);
+        return this;
+    }
+
+    public CsvWriter append(double value) {
+        buffer.append(value);
+        return this;
+    }
+
+    public CsvWriter append(char value) {
+        buffer.append(value);
+        return this;
+    }
+
+    public CsvWriter appendDate(LocalDate date) {
+        buffer.append(date.getYear()).append('-');
+        if(date.getMonthValue() < 10) buffer.append('0');
+        buffer.append(date.getMonthValue()).append('-');
+        if(date.getDayOfMonth() < 10) buffer.append('0');
+        buffer.append(date.getDayOfMonth());
+        return this;
+    }
+
+    public void endRecord() throws IOException {
+        buffer.append(System.lineSeparator());
+        firstField = true;
+        if(buffer.length() >= FLUSH_THRESHOLD) drain();
+    }
+
+    private static boolean needsQuoting(String value) {
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return !value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+    }
+
+    private void drain() throws IOException {
+        int length = buffer.length();
+        if(length == 0) return;
+        if(chunk.length < length) chunk = new char[length];
+        buffer.getChars(0, length, chunk, 0);
+        out.write(chunk, 0, length);
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        out.close();
+    }
+}
@@ -0,0 +1,98 @@
+package util;
+
+import java.util.Arrays;
+
+public class IntLongMap {
+    private static final int EMPTY_KEY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntLongMap() {
+        this(16);
+    }
+
+    public IntLongMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        allocate(capacity);
+    }
+
+    public long get(int key) {
+        if(key == EMPTY_KEY) return 0;
+        int slot = mix(key) & mask;
+        while(keys[slot] != EMPTY_KEY) {
+            if(keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    public void put(int key, long value) {
+        values[slotFor(key)] = value;
+    }
+
+    public long addTo(int key, long delta) {
+        int slot = slotFor(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public int size() { return size; }
+
+    private int slotFor(int key) {
+        if(key == EMPTY_KEY) throw new IllegalArgumentException("Key cannot be 0");
+        int slot = mix(key) & mask;
+        while(keys[slot] != EMPTY_KEY) {
+            if(keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        if(size + 1 >= resizeAt) {
+            rehash(keys.length << 1);
+            return slotFor(key);
+        }
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for(int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if(key == EMPTY_KEY) continue;
+            int slot = mix(key) & mask;
+            while(keys[slot] != EMPTY_KEY) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(capacity, 8);
+    }
+}
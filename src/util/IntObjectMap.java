@@ -0,0 +1,146 @@
+package util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+public class IntObjectMap<V> {
+    private static final int EMPTY_KEY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private static final class Table {
+        final int[] keys;
+        final Object[] values;
+        final int mask;
+        final int resizeAt;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+            resizeAt = (int) (capacity * LOAD_FACTOR);
+        }
+    }
+
+    private volatile Table table;
+    private int size;
+    private int used;
+
+    public IntObjectMap() {
+        this(16);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        table = new Table(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if(key == EMPTY_KEY) return null;
+        Table t = table;
+        int slot = mix(key) & t.mask;
+        int k;
+        while((k = (int) KEYS.getAcquire(t.keys, slot)) != EMPTY_KEY) {
+            if(k == key) return (V) VALUES.getAcquire(t.values, slot);
+            slot = (slot + 1) & t.mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if(key == EMPTY_KEY) throw new IllegalArgumentException("Key cannot be 0");
+        if(value == null) throw new IllegalArgumentException("Value cannot be null");
+        Table t = table;
+        int slot = mix(key) & t.mask;
+        while(t.keys[slot] != EMPTY_KEY) {
+            if(t.keys[slot] == key) {
+                V previous = (V) t.values[slot];
+                VALUES.setRelease(t.values, slot, value);
+                if(previous == null) size++;
+                return previous;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        VALUES.setRelease(t.values, slot, value);
+        KEYS.setRelease(t.keys, slot, key);
+        size++;
+        if(++used >= t.resizeAt) rehash(size >= t.resizeAt / 2 ? t.keys.length << 1 : t.keys.length);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if(key == EMPTY_KEY) return null;
+        Table t = table;
+        int slot = mix(key) & t.mask;
+        while(t.keys[slot] != EMPTY_KEY) {
+            if(t.keys[slot] == key) {
+                V previous = (V) t.values[slot];
+                if(previous != null) {
+                    VALUES.setRelease(t.values, slot, null);
+                    size--;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        return null;
+    }
+
+    public void clear() {
+        table = new Table(table.keys.length);
+        size = 0;
+        used = 0;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        Table t = table;
+        List<V> result = new ArrayList<>(size);
+        for(int i = 0; i < t.keys.length; i++) {
+            Object value = VALUES.getAcquire(t.values, i);
+            if(value != null) result.add((V) value);
+        }
+        return result;
+    }
+
+    private void rehash(int newCapacity) {
+        Table old = table;
+        Table resized = new Table(newCapacity);
+        int live = 0;
+        for(int i = 0; i < old.keys.length; i++) {
+            int key = old.keys[i];
+            Object value = old.values[i];
+            if(key == EMPTY_KEY || value == null) continue;
+            int slot = mix(key) & resized.mask;
+            while(resized.keys[slot] != EMPTY_KEY) slot = (slot + 1) & resized.mask;
+            resized.keys[slot] = key;
+            resized.values[slot] = value;
+            live++;
+        }
+        used = live;
+        table = resized;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(capacity, 8);
+    }
+}
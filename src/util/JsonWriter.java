@@ -0,0 +1,102 @@
+package util;
+
+import java.time.LocalDate;
+
+public class JsonWriter {
+    private final StringBuilder buffer = new StringBuilder(256);
+    private boolean needsComma;
+
+    public JsonWriter beginObject() {
+        separate();
+        buffer.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        buffer.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separate();
+        buffer.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        buffer.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        appendString(name);
+        buffer.append(':');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separate();
+        if(value == null) buffer.append("null");
+        else appendString(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separate();
+        buffer.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separate();
+        buffer.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(LocalDate value) {
+        return value(value == null ? null : value.toString());
+    }
+
+    public JsonWriter valueCents(long cents) {
+        separate();
+        Money.append(buffer, cents);
+        needsComma = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    private void separate() {
+        if(needsComma) buffer.append(',');
+    }
+
+    private void appendString(String value) {
+        buffer.append('"');
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch(c) {
+                case '"': buffer.append("\\\""); break;
+                case '\\': buffer.append("\\\\"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                case '\t': buffer.append("\\t"); break;
+                default:
+                    if(c < 0x20) buffer.append(String.format("\\u%04x", (int) c));
+                    else buffer.append(c);
+            }
+        }
+        buffer.append('"');
+    }
+}
@@ -0,0 +1,88 @@
+package util;
+
+public final class Money {
+    private static final long CENTS_PER_UNIT = 100;
+
+    private Money() {}
+
+    public static long parse(String text) {
+        if(text == null) throw new NumberFormatException("Empty amount");
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    public static long parse(char[] chars, int from, int to) {
+        while(from < to && chars[from] <= ' ') from++;
+        while(to > from && chars[to - 1] <= ' ') to--;
+        if(from >= to) throw new NumberFormatException("Empty amount");
+        boolean negative = chars[from] == '-';
+        int i = (negative || chars[from] == '+') ? from + 1 : from;
+
+        long units = 0;
+        long cents = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        boolean seenDigit = false;
+        boolean roundUp = false;
+        for(; i < to; i++) {
+            char c = chars[i];
+            if(c == '.' && !seenDot) {
+                seenDot = true;
+                continue;
+            }
+            if(c < '0' || c > '9') throw new NumberFormatException("Invalid amount: " + new String(chars, from, to - from));
+            seenDigit = true;
+            if(!seenDot) {
+                units = units * 10 + (c - '0');
+                if(units > Long.MAX_VALUE / CENTS_PER_UNIT) throw new NumberFormatException("Amount out of range: " + new String(chars, from, to - from));
+            } else if(fractionDigits < 2) {
+                cents = cents * 10 + (c - '0');
+                fractionDigits++;
+            } else if(fractionDigits == 2) {
+                roundUp = c >= '5';
+                fractionDigits++;
+            }
+        }
+        if(!seenDigit) throw new NumberFormatException("Invalid amount: " + new String(chars, from, to - from));
+        if(fractionDigits == 1) cents *= 10;
+        long value = units * CENTS_PER_UNIT + cents + (roundUp ? 1 : 0);
+        return negative ? -value : value;
+    }
+
+    public static long ofDouble(double amount) {
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+
+    public static double toDouble(long cents) {
+        return (double) cents / CENTS_PER_UNIT;
+    }
+
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, (long) quantity);
+    }
+
+    public static long fraction(long cents, long numerator, long denominator) {
+        if(denominator <= 0) throw new IllegalArgumentException("Denominator must be greater than 0");
+        long scaled = Math.multiplyExact(cents, numerator);
+        return Math.floorDiv(2 * scaled + denominator, 2 * denominator);
+    }
+
+    public static long percentage(long cents, double percent) {
+        return Math.round(cents * percent / 100);
+    }
+
+    public static String format(long cents) {
+        return append(new StringBuilder(24), cents).toString();
+    }
+
+    public static StringBuilder append(StringBuilder out, long cents) {
+        if(cents < 0) {
+            out.append('-');
+            if(cents == Long.MIN_VALUE) throw new ArithmeticException("Amount out of range");
+            cents = -cents;
+        }
+        long fraction = cents % CENTS_PER_UNIT;
+        out.append(cents / CENTS_PER_UNIT).append('.');
+        if(fraction < 10) out.append('0');
+        return out.append(fraction);
+    }
+}